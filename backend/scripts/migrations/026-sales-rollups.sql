@@ -0,0 +1,28 @@
+-- Creates the sales summary tables the analytics rollups are loaded from and flushed to.
+-- Revenue starts out as an amount; 032-money-to-cents.sql converts it to cents.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS product_sales (
+    product_id   BIGINT PRIMARY KEY,
+    product_name VARCHAR(255),
+    category_id  BIGINT,
+    units_sold   BIGINT NOT NULL,
+    revenue      DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS category_sales (
+    category_id   BIGINT PRIMARY KEY,
+    category_name VARCHAR(255),
+    units_sold    BIGINT NOT NULL,
+    revenue       DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS daily_sales (
+    sales_date  DATE PRIMARY KEY,
+    order_count BIGINT NOT NULL,
+    units_sold  BIGINT NOT NULL,
+    revenue     DOUBLE PRECISION NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,25 @@
+-- Enforces unique product names within a category. Names that already repeat are
+-- listed first; every copy after the oldest gets its product id appended so the
+-- index can be built without deleting or merging products that orders refer to.
+
+BEGIN;
+
+SELECT category_id, product_name, COUNT(*) AS copies
+FROM products
+GROUP BY category_id, product_name
+HAVING COUNT(*) > 1
+ORDER BY category_id, product_name;
+
+UPDATE products p
+SET product_name = p.product_name || ' (' || p.product_id || ')'
+WHERE EXISTS (
+    SELECT 1 FROM products o
+    WHERE o.category_id = p.category_id
+      AND o.product_name = p.product_name
+      AND o.product_id < p.product_id
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_products_category_product_name
+    ON products (category_id, product_name);
+
+COMMIT;
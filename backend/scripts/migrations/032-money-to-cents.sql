@@ -0,0 +1,50 @@
+-- Moves every money column from floating-point amounts to integer cents.
+-- Run once against an existing database before starting the new version.
+
+BEGIN;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS price_cents BIGINT;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS special_price_cents BIGINT;
+UPDATE products SET price_cents = ROUND(COALESCE(price, 0) * 100),
+                    special_price_cents = ROUND(COALESCE(special_price, 0) * 100);
+ALTER TABLE products ALTER COLUMN price_cents SET NOT NULL;
+ALTER TABLE products ALTER COLUMN special_price_cents SET NOT NULL;
+ALTER TABLE products DROP COLUMN price;
+ALTER TABLE products DROP COLUMN special_price;
+
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS total_price_cents BIGINT;
+UPDATE carts SET total_price_cents = ROUND(COALESCE(total_price, 0) * 100);
+ALTER TABLE carts ALTER COLUMN total_price_cents SET NOT NULL;
+ALTER TABLE carts DROP COLUMN total_price;
+
+ALTER TABLE cart_items ADD COLUMN IF NOT EXISTS product_price_cents BIGINT;
+UPDATE cart_items SET product_price_cents = ROUND(COALESCE(product_price, 0) * 100);
+ALTER TABLE cart_items ALTER COLUMN product_price_cents SET NOT NULL;
+ALTER TABLE cart_items DROP COLUMN product_price;
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS total_amount_cents BIGINT;
+UPDATE orders SET total_amount_cents = ROUND(COALESCE(total_amount, 0) * 100);
+ALTER TABLE orders ALTER COLUMN total_amount_cents SET NOT NULL;
+ALTER TABLE orders DROP COLUMN total_amount;
+
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS ordered_product_price_cents BIGINT;
+UPDATE order_items SET ordered_product_price_cents = ROUND(COALESCE(ordered_product_price, 0) * 100);
+ALTER TABLE order_items ALTER COLUMN ordered_product_price_cents SET NOT NULL;
+ALTER TABLE order_items DROP COLUMN ordered_product_price;
+
+ALTER TABLE product_sales ADD COLUMN IF NOT EXISTS revenue_cents BIGINT;
+UPDATE product_sales SET revenue_cents = ROUND(COALESCE(revenue, 0) * 100);
+ALTER TABLE product_sales ALTER COLUMN revenue_cents SET NOT NULL;
+ALTER TABLE product_sales DROP COLUMN revenue;
+
+ALTER TABLE category_sales ADD COLUMN IF NOT EXISTS revenue_cents BIGINT;
+UPDATE category_sales SET revenue_cents = ROUND(COALESCE(revenue, 0) * 100);
+ALTER TABLE category_sales ALTER COLUMN revenue_cents SET NOT NULL;
+ALTER TABLE category_sales DROP COLUMN revenue;
+
+ALTER TABLE daily_sales ADD COLUMN IF NOT EXISTS revenue_cents BIGINT;
+UPDATE daily_sales SET revenue_cents = ROUND(COALESCE(revenue, 0) * 100);
+ALTER TABLE daily_sales ALTER COLUMN revenue_cents SET NOT NULL;
+ALTER TABLE daily_sales DROP COLUMN revenue;
+
+COMMIT;
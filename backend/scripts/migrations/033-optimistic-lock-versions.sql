@@ -0,0 +1,15 @@
+-- Adds the optimistic locking version columns and initialises them for existing rows.
+
+BEGIN;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE products SET version = 0 WHERE version IS NULL;
+ALTER TABLE products ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE products ALTER COLUMN version SET NOT NULL;
+
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE carts SET version = 0 WHERE version IS NULL;
+ALTER TABLE carts ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE carts ALTER COLUMN version SET NOT NULL;
+
+COMMIT;
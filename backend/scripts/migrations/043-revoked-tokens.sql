@@ -0,0 +1,16 @@
+-- Creates the access token denylist shared by every node.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+ALTER TABLE revoked_tokens ADD COLUMN IF NOT EXISTS revoked_at TIMESTAMP(6) WITH TIME ZONE;
+UPDATE revoked_tokens SET revoked_at = NOW() WHERE revoked_at IS NULL;
+ALTER TABLE revoked_tokens ALTER COLUMN revoked_at SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+
+COMMIT;
@@ -0,0 +1,12 @@
+-- Creates the shared catalog revision that every node's ETags are derived from.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS catalog_revision (
+    id       INTEGER PRIMARY KEY,
+    revision BIGINT NOT NULL
+);
+INSERT INTO catalog_revision (id, revision)
+SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM catalog_revision WHERE id = 1);
+
+COMMIT;
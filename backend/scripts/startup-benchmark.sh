@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of the backend jar for several startup modes.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [profiles]
+#   runs      number of runs per mode (default 5)
+#   profiles  Spring profiles to activate (default prod)
+#
+# The database configured through DB_URL/DB_USERNAME/DB_PASSWORD must be reachable.
+# Build first with: ./mvnw -Pstartup package -DskipTests
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PROFILES=${2:-prod}
+PORT=${PORT:-8080}
+JAR=target/sb-ecom-0.0.1-SNAPSHOT.jar
+EXTRACTED=target/extracted
+APP_JAR=$EXTRACTED/sb-ecom-0.0.1-SNAPSHOT.jar
+CDS_ARCHIVE=target/app.jsa
+HEALTH_URL="http://localhost:$PORT/actuator/health"
+
+if [ ! -f "$JAR" ]; then
+    echo "Missing $JAR, build it with ./mvnw -Pstartup package -DskipTests" >&2
+    exit 1
+fi
+
+rm -rf "$EXTRACTED"
+java -Djarmode=tools -jar "$JAR" extract --destination "$EXTRACTED" > /dev/null
+
+echo "Training CDS archive..."
+java -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$APP_JAR" --spring.profiles.active="$PROFILES" > /dev/null
+
+now_ms() {
+    date +%s%3N
+}
+
+measure() {
+    local mode=$1
+    shift
+    local total=0
+    for ((run = 1; run <= RUNS; run++)); do
+        local start
+        start=$(now_ms)
+        java "$@" -jar "$APP_JAR" --spring.profiles.active="$PROFILES" --server.port="$PORT" > /dev/null 2>&1 &
+        local pid=$!
+        until [ "$(curl -s -o /dev/null -w '%{http_code}' "$HEALTH_URL")" != "000" ]; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$mode: application exited before serving a request" >&2
+                exit 1
+            fi
+            sleep 0.05
+        done
+        local elapsed=$(($(now_ms) - start))
+        total=$((total + elapsed))
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+    done
+    printf '%-12s %6d ms (mean of %d runs)\n' "$mode" $((total / RUNS)) "$RUNS"
+}
+
+measure "jvm"
+measure "lazy" -DLAZY_INIT=true
+measure "aot" -Dspring.aot.enabled=true
+measure "aot+cds" -Dspring.aot.enabled=true -XX:SharedArchiveFile="$CDS_ARCHIVE"
+measure "aot+cds+lazy" -Dspring.aot.enabled=true -XX:SharedArchiveFile="$CDS_ARCHIVE" -DLAZY_INIT=true
@@ -0,0 +1,100 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.events.OrderPlacedEvent;
+import com.ecommerce.project.model.CatalogRevision;
+import com.ecommerce.project.repositories.CatalogRevisionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+
+/**
+ * The catalog revision every node derives its listing ETags from. It lives in the
+ * {@code catalog_revision} row: writes bump it there, and each node polls it so a change made on
+ * another node also retires the tags handed out here. Before a remote change is adopted, the
+ * caches behind the tagged responses are reloaded, so a new tag never goes out with old data.
+ */
+@Component
+public class CatalogVersion {
+
+    @Autowired
+    private CatalogRevisionRepository catalogRevisionRepository;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private ListingCountCache listingCountCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+    private volatile long revision;
+
+    @PostConstruct
+    public void load() {
+        // bump() also runs from after-commit listeners, where only a new transaction can write.
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        revision = newTransaction.execute(status -> catalogRevisionRepository.findRevision()
+                .orElseGet(() -> catalogRevisionRepository.save(new CatalogRevision(CatalogRevision.ID, 0L)).getRevision()));
+    }
+
+    public void bump() {
+        long stored = newTransaction.execute(status -> {
+            catalogRevisionRepository.increment();
+            return catalogRevisionRepository.findRevision().orElseThrow();
+        });
+        advanceTo(stored, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${project.catalog.revisionSyncMs:1000}")
+    public void syncFromDatabase() {
+        catalogRevisionRepository.findRevision().ifPresent(stored -> advanceTo(stored, 0));
+    }
+
+    public String eTag(String accept) {
+        return "\"" + revision + "-" + representation(accept) + "\"";
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        bump();
+    }
+
+    // ownChanges is how many of the revisions up to stored this node has already applied locally.
+    private synchronized void advanceTo(long stored, int ownChanges) {
+        if (stored <= revision)
+            return;
+        if (stored > revision + ownChanges) {
+            categoryCache.load();
+            listingCountCache.invalidateAll();
+        }
+        revision = stored;
+    }
+
+    private static String representation(String accept) {
+        if (accept == null || !accept.contains("cbor"))
+            return "json";
+        try {
+            MediaType preferred = MediaType.parseMediaTypes(accept).stream()
+                    .filter(type -> type.isCompatibleWith(MediaType.APPLICATION_JSON)
+                            || type.isCompatibleWith(MediaType.APPLICATION_CBOR))
+                    .max(Comparator.comparingDouble(MediaType::getQualityValue)
+                            .thenComparing(type -> !type.isWildcardType() && !type.isWildcardSubtype()))
+                    .orElse(MediaType.APPLICATION_JSON);
+            return MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(preferred) ? "cbor" : "json";
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.repositories.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class CategoryCache {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    private volatile List<CategoryDTO> categories = List.of();
+
+    @PostConstruct
+    public synchronized void load() {
+        Map<Long, Long> productCounts = new HashMap<>();
+        for (Object[] row : categoryRepository.countProductsByCategory()) {
+            productCounts.put((Long) row[0], (Long) row[1]);
+        }
+        publish(productCounts);
+    }
+
+    /**
+     * Reloads the categories after one is added, renamed or deleted. Product counts are carried
+     * over from the current snapshot; they are kept up to date by {@link #adjustProductCount}.
+     */
+    public synchronized void refresh() {
+        Map<Long, Long> productCounts = new HashMap<>();
+        for (CategoryDTO category : categories) {
+            productCounts.put(category.getCategoryId(), category.getProductCount());
+        }
+        publish(productCounts);
+    }
+
+    public synchronized void adjustProductCount(Long categoryId, long delta) {
+        categories = categories.stream()
+                .map(category -> category.getCategoryId().equals(categoryId)
+                        ? new CategoryDTO(categoryId, category.getCategoryName(), category.getProductCount() + delta)
+                        : category)
+                .toList();
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    private void publish(Map<Long, Long> productCounts) {
+        categories = categoryRepository.findAll().stream()
+                .map(category -> {
+                    CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
+                    categoryDTO.setProductCount(productCounts.getOrDefault(category.getCategoryId(), 0L));
+                    return categoryDTO;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.project.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class ListingCountCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    @Value("${project.listing.countCacheTtlMs}")
+    private long ttlMs;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public long getCount(String key, Supplier<Long> counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt() > now)
+            return cached.count();
+
+        long count = counter.get();
+        if (counts.size() >= MAX_ENTRIES)
+            counts.clear();
+        counts.put(key, new CachedCount(count, now + ttlMs));
+        return count;
+    }
+
+    public void invalidateAll() {
+        counts.clear();
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
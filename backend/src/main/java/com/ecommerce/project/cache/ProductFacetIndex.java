@@ -0,0 +1,371 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.events.OrderPlacedEvent;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductFacetResult;
+import com.ecommerce.project.payload.ProductFilterDTO;
+import com.ecommerce.project.repositories.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+
+@Component
+public class ProductFacetIndex {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${project.facets.priceBands}")
+    private double[] priceBoundaries;
+
+    @Value("${project.facets.discountBands}")
+    private double[] discountBoundaries;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] productIds = new long[1024];
+    private String[] productNames = new String[1024];
+    private Long[] categoryIds = new Long[1024];
+    private long[] priceCents = new long[1024];
+    private long[] specialPriceCents = new long[1024];
+    private double[] discounts = new double[1024];
+    private int[] quantities = new int[1024];
+    private int nextOrdinal;
+
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> categories = new HashMap<>();
+    private BandedIndex priceIndex;
+    private BandedIndex specialPriceIndex;
+    private BandedIndex discountIndex;
+
+    @PostConstruct
+    public void load() {
+        priceIndex = new BandedIndex(priceBoundaries, 100);
+        specialPriceIndex = new BandedIndex(priceBoundaries, 100);
+        discountIndex = new BandedIndex(discountBoundaries, 1);
+
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : productRepository.findFacetRows()) {
+                put((Long) row[0], (String) row[1], (Long) row[2], (Long) row[3], (Long) row[4],
+                        (Double) row[5], (Integer) row[6]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            put(product.getProductId(), product.getProductName(),
+                    product.getCategory() != null ? product.getCategory().getCategoryId() : null,
+                    product.getPriceCents(), product.getSpecialPriceCents(), product.getDiscount(), product.getQuantity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal != null)
+                clearFacets(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap category = categories.get(categoryId);
+            if (category == null)
+                return;
+            for (int ordinal : category.toArray()) {
+                ordinals.remove(productIds[ordinal]);
+                clearFacets(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        event.getOrderItems().forEach(item -> index(item.getProduct()));
+    }
+
+    public ProductFacetResult filter(ProductFilterDTO filter, int pageNumber, int pageSize,
+                                     String sortBy, String sortOrder) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = live.clone();
+            if (filter.getCategoryId() != null) {
+                RoaringBitmap category = categories.get(filter.getCategoryId());
+                result.and(category != null ? category : new RoaringBitmap());
+            }
+            if (filter.getInStock() != null) {
+                if (filter.getInStock())
+                    result.and(inStock);
+                else
+                    result.andNot(inStock);
+            }
+            if (filter.getMinPrice() != null || filter.getMaxPrice() != null)
+                result.and(priceIndex.range(filter.getMinPrice(), filter.getMaxPrice(), ordinal -> priceCents[ordinal]));
+            if (filter.getMinSpecialPrice() != null || filter.getMaxSpecialPrice() != null)
+                result.and(specialPriceIndex.range(filter.getMinSpecialPrice(), filter.getMaxSpecialPrice(),
+                        ordinal -> specialPriceCents[ordinal]));
+            if (filter.getMinDiscount() != null)
+                result.and(discountIndex.range(filter.getMinDiscount(), null, ordinal -> discounts[ordinal]));
+
+            Map<Long, Long> categoryCounts = new HashMap<>();
+            categories.forEach((categoryId, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(result, bitmap);
+                if (count > 0)
+                    categoryCounts.put(categoryId, count);
+            });
+
+            OrdinalComparator comparator = comparator(sortBy);
+            if (!sortOrder.equalsIgnoreCase("asc")) {
+                OrdinalComparator ascending = comparator;
+                comparator = (a, b) -> ascending.compare(b, a);
+            }
+
+            long offset = (long) pageNumber * pageSize;
+            List<Long> pageIds = new ArrayList<>(pageSize);
+            if (offset < result.getLongCardinality()) {
+                int[] top = topOrdinals(result, comparator, (int) Math.min(offset + pageSize, result.getLongCardinality()));
+                for (int i = (int) offset; i < top.length; i++)
+                    pageIds.add(productIds[top[i]]);
+            }
+
+            return new ProductFacetResult(pageIds, result.getLongCardinality(), categoryCounts,
+                    priceIndex.counts(result), discountIndex.counts(result),
+                    RoaringBitmap.andCardinality(result, inStock));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private OrdinalComparator comparator(String sortBy) {
+        OrdinalComparator byProductId = (a, b) -> Long.compare(productIds[a], productIds[b]);
+        OrdinalComparator primary = switch (sortBy) {
+            case "productId" -> byProductId;
+            case "productName" -> (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(productNames[a], productNames[b]);
+            case "price" -> (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+            case "specialPrice" -> (a, b) -> Long.compare(specialPriceCents[a], specialPriceCents[b]);
+            case "discount" -> (a, b) -> Double.compare(discounts[a], discounts[b]);
+            case "quantity" -> (a, b) -> Integer.compare(quantities[a], quantities[b]);
+            default -> throw new APIException("Products cannot be sorted by: " + sortBy);
+        };
+        return (a, b) -> {
+            int order = primary.compare(a, b);
+            return order != 0 ? order : byProductId.compare(a, b);
+        };
+    }
+
+    private static int[] topOrdinals(RoaringBitmap result, OrdinalComparator comparator, int limit) {
+        int[] heap = new int[limit];
+        int size = 0;
+        PeekableIntIterator iterator = result.getIntIterator();
+        while (iterator.hasNext()) {
+            int ordinal = iterator.next();
+            if (size < limit) {
+                heap[size] = ordinal;
+                siftUp(heap, size++, comparator);
+            } else if (comparator.compare(ordinal, heap[0]) < 0) {
+                heap[0] = ordinal;
+                siftDown(heap, size, comparator);
+            }
+        }
+
+        for (int end = size - 1; end > 0; end--) {
+            int largest = heap[0];
+            heap[0] = heap[end];
+            heap[end] = largest;
+            siftDown(heap, end, comparator);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int index, OrdinalComparator comparator) {
+        int ordinal = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(ordinal, heap[parent]) <= 0)
+                break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = ordinal;
+    }
+
+    private static void siftDown(int[] heap, int size, OrdinalComparator comparator) {
+        int ordinal = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0)
+                child++;
+            if (comparator.compare(ordinal, heap[child]) >= 0)
+                break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = ordinal;
+    }
+
+    private void put(Long productId, String productName, Long categoryId, long price,
+                     long specialPrice, double discount, Integer quantity) {
+        Integer ordinal = ordinals.get(productId);
+        if (ordinal == null) {
+            ordinal = nextOrdinal++;
+            ensureCapacity(nextOrdinal);
+            ordinals.put(productId, ordinal);
+        } else {
+            clearFacets(ordinal);
+        }
+
+        productIds[ordinal] = productId;
+        productNames[ordinal] = productName;
+        categoryIds[ordinal] = categoryId;
+        priceCents[ordinal] = price;
+        specialPriceCents[ordinal] = specialPrice;
+        discounts[ordinal] = discount;
+        quantities[ordinal] = quantity != null ? quantity : 0;
+
+        live.add(ordinal);
+        if (quantities[ordinal] > 0)
+            inStock.add(ordinal);
+        if (categoryId != null)
+            categories.computeIfAbsent(categoryId, id -> new RoaringBitmap()).add(ordinal);
+        priceIndex.add(ordinal, price);
+        specialPriceIndex.add(ordinal, specialPrice);
+        discountIndex.add(ordinal, discount);
+    }
+
+    private void clearFacets(int ordinal) {
+        live.remove(ordinal);
+        inStock.remove(ordinal);
+        Long categoryId = categoryIds[ordinal];
+        if (categoryId != null) {
+            RoaringBitmap category = categories.get(categoryId);
+            if (category != null) {
+                category.remove(ordinal);
+                if (category.isEmpty())
+                    categories.remove(categoryId);
+            }
+        }
+        priceIndex.remove(ordinal);
+        specialPriceIndex.remove(ordinal);
+        discountIndex.remove(ordinal);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= productIds.length)
+            return;
+        int newLength = Math.max(capacity, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, newLength);
+        productNames = Arrays.copyOf(productNames, newLength);
+        categoryIds = Arrays.copyOf(categoryIds, newLength);
+        priceCents = Arrays.copyOf(priceCents, newLength);
+        specialPriceCents = Arrays.copyOf(specialPriceCents, newLength);
+        discounts = Arrays.copyOf(discounts, newLength);
+        quantities = Arrays.copyOf(quantities, newLength);
+    }
+
+    private static class BandedIndex {
+        private final double scale;
+        private final double[] boundaries;
+        private final RoaringBitmap[] bands;
+        private final String[] labels;
+
+        BandedIndex(double[] boundaries, double scale) {
+            double[] sorted = boundaries.clone();
+            Arrays.sort(sorted);
+            this.scale = scale;
+            this.boundaries = new double[sorted.length];
+            this.bands = new RoaringBitmap[sorted.length];
+            this.labels = new String[sorted.length];
+            for (int i = 0; i < bands.length; i++) {
+                this.boundaries[i] = sorted[i] * scale;
+                bands[i] = new RoaringBitmap();
+                labels[i] = i == bands.length - 1
+                        ? format(sorted[i]) + "+"
+                        : format(sorted[i]) + "-" + format(sorted[i + 1]);
+            }
+        }
+
+        void add(int ordinal, double value) {
+            bands[bandOf(value)].add(ordinal);
+        }
+
+        void remove(int ordinal) {
+            for (RoaringBitmap band : bands) {
+                band.remove(ordinal);
+            }
+        }
+
+        RoaringBitmap range(Double minValue, Double maxValue, IntToDoubleFunction values) {
+            Double min = minValue != null ? minValue * scale : null;
+            Double max = maxValue != null ? maxValue * scale : null;
+            RoaringBitmap result = new RoaringBitmap();
+            int low = min != null ? bandOf(min) : 0;
+            int high = max != null ? bandOf(max) : bands.length - 1;
+            for (int i = low; i <= high; i++) {
+                boolean partial = (i == low && min != null) || (i == high && max != null);
+                if (!partial) {
+                    result.or(bands[i]);
+                    continue;
+                }
+                bands[i].forEach((int ordinal) -> {
+                    double value = values.applyAsDouble(ordinal);
+                    if ((min == null || value >= min) && (max == null || value <= max))
+                        result.add(ordinal);
+                });
+            }
+            return result;
+        }
+
+        Map<String, Long> counts(RoaringBitmap result) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < bands.length; i++) {
+                counts.put(labels[i], (long) RoaringBitmap.andCardinality(result, bands[i]));
+            }
+            return counts;
+        }
+
+        private int bandOf(double value) {
+            int index = Arrays.binarySearch(boundaries, value);
+            if (index < 0)
+                index = -index - 2;
+            return Math.max(index, 0);
+        }
+
+        private static String format(double boundary) {
+            return BigDecimal.valueOf(boundary).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    @FunctionalInterface
+    private interface OrdinalComparator {
+        int compare(int a, int b);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.repositories.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ProductNameIndex {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final Map<Long, Set<String>> namesByCategory = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (Object[] row : productRepository.findCategoryProductNames()) {
+            names((Long) row[0]).add((String) row[1]);
+        }
+    }
+
+    public boolean reserve(Long categoryId, String productName) {
+        return names(categoryId).add(productName);
+    }
+
+    public void release(Long categoryId, String productName) {
+        Set<String> names = namesByCategory.get(categoryId);
+        if (names != null)
+            names.remove(productName);
+    }
+
+    public void releaseCategory(Long categoryId) {
+        namesByCategory.remove(categoryId);
+    }
+
+    private Set<String> names(Long categoryId) {
+        return namesByCategory.computeIfAbsent(categoryId, id -> ConcurrentHashMap.newKeySet());
+    }
+}
@@ -0,0 +1,415 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.util.MoneyUtils;
+import com.ecommerce.project.util.OptimisticLockRetry;
+import jakarta.annotation.PreDestroy;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "project.cart.writeBehind.enabled", havingValue = "true")
+public class WriteBehindCartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Value("${project.cart.writeBehind.idleEvictMs}")
+    private long idleEvictMs;
+
+    private final Map<String, CartState> carts = new ConcurrentHashMap<>();
+    private final Map<Long, String> cartOwners = new ConcurrentHashMap<>();
+    private final Set<String> dirtyCarts = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Condition[] flushDone = new Condition[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public WriteBehindCartStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+            flushDone[i] = stripes[i].newCondition();
+        }
+    }
+
+    public CartDTO getCart(String email) {
+        ReentrantLock lock = stripeFor(email);
+        lock.lock();
+        try {
+            CartState state = carts.get(email);
+            if (state == null)
+                return null;
+            state.lastAccess = System.currentTimeMillis();
+            return toDTO(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CartDTO updateQuantity(String email, Product product, int quantity) {
+        ReentrantLock lock = stripeFor(email);
+        lock.lock();
+        try {
+            CartState state = carts.get(email);
+            if (state == null) {
+                state = load(email);
+                carts.put(email, state);
+                cartOwners.put(state.cartId, email);
+            }
+            state.lastAccess = System.currentTimeMillis();
+
+            if (product.getQuantity() == 0) {
+                throw new APIException(("Product: " + product.getProductName() + " is not available!"));
+            }
+
+            CartLine line = state.lines.get(product.getProductId());
+            if (line == null) {
+                throw new APIException(("Product: " + product.getProductName() + " not available in the cart!"));
+            }
+
+            if (product.getQuantity() < line.quantity + quantity) {
+                throw new APIException(("Please make an order of the " + product.getProductName()
+                        + " less than or equal to " + product.getQuantity() + "."));
+            }
+
+            int newQuantity = line.quantity + quantity;
+            if (newQuantity < 0) {
+                throw new APIException("The resulting quantity cannot be less than zero!");
+            }
+
+            if (newQuantity == 0) {
+                state.totalPriceCents -= line.priceCents * line.quantity;
+                state.lines.remove(product.getProductId());
+            } else {
+                line.product = modelMapper.map(product, ProductDTO.class);
+                line.priceCents = product.getSpecialPriceCents();
+                line.discount = product.getDiscount();
+                line.quantity = newQuantity;
+                state.totalPriceCents += line.priceCents * quantity;
+            }
+            state.modCount++;
+            dirtyCarts.add(email);
+
+            return toDTO(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${project.cart.writeBehind.flushIntervalMs:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<String> emails = new ArrayList<>(dirtyCarts);
+            dirtyCarts.removeAll(emails);
+
+            Map<String, CartSnapshot> snapshots = new HashMap<>();
+            for (String email : emails) {
+                CartSnapshot snapshot = snapshot(email);
+                if (snapshot != null)
+                    snapshots.put(email, snapshot);
+            }
+
+            if (!snapshots.isEmpty()) {
+                Map<Long, Long> versions;
+                try {
+                    versions = write(snapshots.values());
+                } catch (RuntimeException e) {
+                    dirtyCarts.addAll(snapshots.keySet());
+                    snapshots.forEach((email, snapshot) -> markFlushed(email, null, null));
+                    logger.error("Failed to flush {} carts, will retry", snapshots.size(), e);
+                    return;
+                }
+                snapshots.forEach((email, snapshot) ->
+                        markFlushed(email, snapshot, versions.get(snapshot.cartId())));
+            }
+
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Writes the cart back if it has unflushed changes and drops it from memory, so the caller can
+     * change the database row directly. The write happens outside the stripe lock; changes that
+     * land while it is in flight are written by the next pass before the cart is evicted.
+     */
+    public void flushAndEvict(String email) {
+        ReentrantLock lock = stripeFor(email);
+        lock.lock();
+        try {
+            while (true) {
+                CartState state = carts.get(email);
+                if (state == null)
+                    return;
+                if (state.flushing) {
+                    flushDone[stripeIndex(email)].awaitUninterruptibly();
+                    continue;
+                }
+                if (state.modCount == state.flushedModCount) {
+                    carts.remove(email);
+                    cartOwners.remove(state.cartId);
+                    dirtyCarts.remove(email);
+                    return;
+                }
+
+                state.flushing = true;
+                CartSnapshot snapshot = snapshotOf(state);
+                lock.unlock();
+                Map<Long, Long> versions = null;
+                try {
+                    versions = write(List.of(snapshot));
+                } finally {
+                    lock.lock();
+                    if (versions == null)
+                        finishFlush(email, state, null, null);
+                    else
+                        finishFlush(email, state, snapshot, versions.get(snapshot.cartId()));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flushAndEvictCart(Long cartId) {
+        String email = cartOwners.get(cartId);
+        if (email != null)
+            flushAndEvict(email);
+    }
+
+    private CartState load(String email) {
+        return transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findCartByEmail(email);
+            if (cart == null) {
+                throw new ResourceNotFoundException("Cart", "emailId", email);
+            }
+
+            CartState state = new CartState(cart.getCartId());
+            state.version = cart.getVersion();
+            state.totalPriceCents = cart.getTotalPriceCents();
+            for (CartItem item : cart.getCartItems()) {
+                CartLine line = new CartLine();
+                line.product = modelMapper.map(item.getProduct(), ProductDTO.class);
+                line.quantity = item.getQuantity();
+                line.discount = item.getDiscount();
+                line.priceCents = item.getProductPriceCents();
+                state.lines.put(item.getProduct().getProductId(), line);
+            }
+            return state;
+        });
+    }
+
+    private CartSnapshot snapshot(String email) {
+        ReentrantLock lock = stripeFor(email);
+        lock.lock();
+        try {
+            CartState state = carts.get(email);
+            if (state == null)
+                return null;
+            if (state.flushing) {
+                // flushAndEvict is writing this cart; keep it dirty in case that write fails
+                dirtyCarts.add(email);
+                return null;
+            }
+            state.flushing = true;
+            return snapshotOf(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CartSnapshot snapshotOf(CartState state) {
+        Map<Long, CartLine> lines = new LinkedHashMap<>();
+        state.lines.forEach((productId, line) -> lines.put(productId, line.copy()));
+        return new CartSnapshot(state.cartId, state.version, lines, state.totalPriceCents, state.modCount);
+    }
+
+    /**
+     * Writes the snapshots and returns the new version of every cart that was written. A cart whose
+     * version no longer matches the one it was loaded at was changed by someone else (an order
+     * clearing it, another node); it is left untouched and missing from the result.
+     */
+    private Map<Long, Long> write(Collection<CartSnapshot> snapshots) {
+        return optimisticLockRetry.execute("flushCarts", () -> {
+            Map<Long, Cart> cartsById = cartRepository.findAllById(
+                            snapshots.stream().map(CartSnapshot::cartId).toList()).stream()
+                    .collect(Collectors.toMap(Cart::getCartId, Function.identity()));
+
+            for (CartSnapshot snapshot : snapshots) {
+                Cart cart = cartsById.get(snapshot.cartId());
+                if (cart == null || !Objects.equals(cart.getVersion(), snapshot.version())) {
+                    cartsById.remove(snapshot.cartId());
+                    continue;
+                }
+
+                Map<Long, CartItem> items = cart.getCartItems().stream()
+                        .collect(Collectors.toMap(item -> item.getProduct().getProductId(), Function.identity()));
+                cart.getCartItems().removeIf(item -> !snapshot.lines().containsKey(item.getProduct().getProductId()));
+
+                snapshot.lines().forEach((productId, line) -> {
+                    CartItem item = items.get(productId);
+                    if (item == null) {
+                        item = new CartItem();
+                        item.setCart(cart);
+                        item.setProduct(productRepository.getReferenceById(productId));
+                        cart.getCartItems().add(item);
+                    }
+                    item.setQuantity(line.quantity);
+                    item.setDiscount(line.discount);
+                    item.setProductPriceCents(line.priceCents);
+                });
+                cart.setTotalPriceCents(snapshot.totalPriceCents());
+            }
+            cartRepository.flush();
+
+            Map<Long, Long> versions = new HashMap<>();
+            cartsById.forEach((cartId, cart) -> versions.put(cartId, cart.getVersion()));
+            return versions;
+        });
+    }
+
+    private void markFlushed(String email, CartSnapshot snapshot, Long version) {
+        ReentrantLock lock = stripeFor(email);
+        lock.lock();
+        try {
+            CartState state = carts.get(email);
+            if (state != null)
+                finishFlush(email, state, snapshot, version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called under the stripe lock once a write of {@code state} has finished. A null snapshot means
+     * the write failed; a snapshot without a version means the database copy had moved on, so the
+     * in-memory cart is stale and is dropped rather than written over it.
+     */
+    private void finishFlush(String email, CartState state, CartSnapshot snapshot, Long version) {
+        if (snapshot != null && version == null) {
+            logger.warn("Cart {} changed outside the write-behind store, discarding cached copy", state.cartId);
+            carts.remove(email);
+            cartOwners.remove(state.cartId);
+            dirtyCarts.remove(email);
+        } else if (snapshot != null) {
+            state.flushedModCount = Math.max(state.flushedModCount, snapshot.modCount());
+            state.version = version;
+        }
+        state.flushing = false;
+        flushDone[stripeIndex(email)].signalAll();
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        for (String email : carts.keySet()) {
+            ReentrantLock lock = stripeFor(email);
+            lock.lock();
+            try {
+                CartState state = carts.get(email);
+                if (state != null && !state.flushing && state.modCount == state.flushedModCount
+                        && state.lastAccess < cutoff) {
+                    carts.remove(email);
+                    cartOwners.remove(state.cartId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private CartDTO toDTO(CartState state) {
+        List<ProductDTO> products = state.lines.values().stream().map(line -> {
+            ProductDTO productDTO = modelMapper.map(line.product, ProductDTO.class);
+            productDTO.setQuantity(line.quantity);
+            return productDTO;
+        }).toList();
+        return new CartDTO(state.cartId, MoneyUtils.toAmount(state.totalPriceCents), products);
+    }
+
+    private ReentrantLock stripeFor(String email) {
+        return stripes[stripeIndex(email)];
+    }
+
+    private int stripeIndex(String email) {
+        return (email.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private static class CartState {
+        private final Long cartId;
+        private Long version;
+        private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+        private long totalPriceCents;
+        private long modCount;
+        private long flushedModCount;
+        private boolean flushing;
+        private long lastAccess = System.currentTimeMillis();
+
+        private CartState(Long cartId) {
+            this.cartId = cartId;
+        }
+    }
+
+    private static class CartLine {
+        private ProductDTO product;
+        private int quantity;
+        private Double discount;
+        private long priceCents;
+
+        private CartLine copy() {
+            CartLine copy = new CartLine();
+            copy.product = product;
+            copy.quantity = quantity;
+            copy.discount = discount;
+            copy.priceCents = priceCents;
+            return copy;
+        }
+    }
+
+    private record CartSnapshot(Long cartId, Long version, Map<Long, CartLine> lines, long totalPriceCents,
+                                long modCount) {
+    }
+}
@@ -1,14 +1,88 @@
 package com.ecommerce.project.configs;
 
+import com.ecommerce.project.cache.*;
+import com.ecommerce.project.model.*;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.service.AnalyticsService;
+import com.ecommerce.project.util.MoneyUtils;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Configuration
 public class AppConfig {
 
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(CategoryCache.class, ProductFacetIndex.class,
+                ProductNameIndex.class, WriteBehindCartStore.class, AnalyticsService.class);
+    }
+
+    @Bean
+    @Primary
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    @Bean
+    public TransactionTemplate readOnlyTransactionTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        return readOnlyTransactionTemplate;
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
     @Bean
     public ModelMapper modelMapper() {
-        return new ModelMapper();
+        ModelMapper modelMapper = new ModelMapper();
+
+        Converter<Long, Double> centsToAmount = context ->
+                context.getSource() == null ? null : MoneyUtils.toAmount(context.getSource());
+        Converter<Double, Long> amountToCents = context ->
+                context.getSource() == null ? 0L : MoneyUtils.toCents(context.getSource());
+
+        modelMapper.emptyTypeMap(Product.class, ProductDTO.class)
+                .addMappings(mapper -> {
+                    mapper.using(centsToAmount).map(Product::getPriceCents, ProductDTO::setPrice);
+                    mapper.using(centsToAmount).map(Product::getSpecialPriceCents, ProductDTO::setSpecialPrice);
+                })
+                .implicitMappings();
+
+        modelMapper.emptyTypeMap(ProductDTO.class, Product.class)
+                .addMappings(mapper -> {
+                    mapper.using(amountToCents).map(ProductDTO::getPrice, Product::setPriceCents);
+                    mapper.using(amountToCents).map(ProductDTO::getSpecialPrice, Product::setSpecialPriceCents);
+                })
+                .implicitMappings();
+
+        modelMapper.emptyTypeMap(Cart.class, CartDTO.class)
+                .addMappings(mapper -> mapper.using(centsToAmount).map(Cart::getTotalPriceCents, CartDTO::setTotalPrice))
+                .implicitMappings();
+
+        modelMapper.emptyTypeMap(OrderItem.class, OrderItemDTO.class)
+                .addMappings(mapper -> mapper.using(centsToAmount)
+                        .map(OrderItem::getOrderedProductPriceCents, OrderItemDTO::setOrderedProductPrice))
+                .implicitMappings();
+
+        modelMapper.emptyTypeMap(Order.class, OrderDTO.class)
+                .addMappings(mapper -> mapper.using(centsToAmount).map(Order::getTotalAmountCents, OrderDTO::setTotalAmount))
+                .implicitMappings();
+
+        return modelMapper;
     }
 }
@@ -3,7 +3,12 @@ package com.ecommerce.project.configs;
 public class AppConstants {
     public static final String PAGE_NUMBER = "0";
     public static final String PAGE_SIZE = "50";
+    public static final int MAX_PAGE_SIZE = 200;
     public static final String SORT_CATEGORIES_BY = "categoryId";
     public static final String SORT_DIR = "asc";
     public static final String SORT_PRODUCTS_BY = "productId";
+    public static final String WITH_TOTAL = "false";
+    public static final String TOP_SELLERS_LIMIT = "10";
+    public static final int MAX_TOP_SELLERS_LIMIT = 100;
+    public static final String EXPORT_FORMAT = "csv";
 }
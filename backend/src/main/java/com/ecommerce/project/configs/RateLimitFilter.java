@@ -0,0 +1,165 @@
+package com.ecommerce.project.configs;
+
+import com.ecommerce.project.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long INLINE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private final RateLimitProperties properties;
+    private final List<RouteLimiter> limiters;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiters = properties.getRules().stream()
+                .map(rule -> new RouteLimiter(rule, meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || limiters.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (RouteLimiter limiter : limiters) {
+            if (!limiter.matches(request.getMethod(), path))
+                continue;
+
+            long retryAfterNanos = limiter.tryAcquire(clientKey(limiter.rule, request));
+            if (retryAfterNanos > 0) {
+                limiter.rejected.increment();
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"message\":\"Too many requests, please try again later\",\"status\":false}");
+                return;
+            }
+            limiter.allowed.increment();
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${project.rateLimit.sweepIntervalMs:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        limiters.forEach(limiter -> limiter.sweep(now));
+    }
+
+    private String clientKey(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getKey() == RateLimitProperties.KeyType.USER) {
+            Claims claims = (Claims) request.getAttribute(JwtUtils.CLAIMS_ATTRIBUTE);
+            if (claims == null) {
+                String jwt = jwtUtils.getJwtFromCookies(request);
+                claims = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+                if (claims != null)
+                    request.setAttribute(JwtUtils.CLAIMS_ATTRIBUTE, claims);
+            }
+            if (claims != null)
+                return "user:" + claims.getSubject();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private class RouteLimiter {
+        private final RateLimitProperties.Rule rule;
+        private final PathPattern pattern;
+        private final long emissionIntervalNanos;
+        private final long toleranceNanos;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflowBucket = new AtomicLong(System.nanoTime());
+        private final AtomicLong lastInlineSweep = new AtomicLong(System.nanoTime());
+        private final Counter allowed;
+        private final Counter rejected;
+        private final Counter overflow;
+
+        private RouteLimiter(RateLimitProperties.Rule rule, MeterRegistry meterRegistry) {
+            this.rule = rule;
+            this.pattern = PathPatternParser.defaultInstance.parse(rule.getPattern());
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / rule.getRefillPerMinute();
+            this.toleranceNanos = emissionIntervalNanos * rule.getCapacity();
+            this.allowed = meterRegistry.counter("http.rate.limit", "route", rule.getName(), "outcome", "allowed");
+            this.rejected = meterRegistry.counter("http.rate.limit", "route", rule.getName(), "outcome", "rejected");
+            this.overflow = meterRegistry.counter("http.rate.limit", "route", rule.getName(), "outcome", "overflow");
+            meterRegistry.gauge("http.rate.limit.keys", List.of(Tag.of("route", rule.getName())),
+                    buckets, Map::size);
+        }
+
+        private boolean matches(String method, PathContainer path) {
+            return (rule.getMethod() == null || rule.getMethod().equalsIgnoreCase(method)) && pattern.matches(path);
+        }
+
+        private long tryAcquire(String key) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= properties.getMaxKeys() && !sweepIfDue()) {
+                    overflow.increment();
+                    return acquire(overflowBucket);
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+            }
+            return acquire(bucket);
+        }
+
+        private boolean sweepIfDue() {
+            long now = System.nanoTime();
+            long last = lastInlineSweep.get();
+            if (now - last < INLINE_SWEEP_INTERVAL_NANOS || !lastInlineSweep.compareAndSet(last, now))
+                return false;
+            sweep(now);
+            return buckets.size() < properties.getMaxKeys();
+        }
+
+        private long acquire(AtomicLong bucket) {
+            while (true) {
+                long now = System.nanoTime();
+                long theoreticalArrival = bucket.get();
+                long next = Math.max(theoreticalArrival, now) + emissionIntervalNanos;
+                long excess = next - now - toleranceNanos;
+                if (excess > 0)
+                    return excess;
+                if (bucket.compareAndSet(theoreticalArrival, next))
+                    return 0;
+            }
+        }
+
+        private void sweep(long now) {
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.project.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "project.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String name;
+        private String method;
+        private String pattern;
+        private long capacity;
+        private long refillPerMinute;
+        private KeyType key = KeyType.IP;
+    }
+
+    public enum KeyType {
+        IP, USER
+    }
+}
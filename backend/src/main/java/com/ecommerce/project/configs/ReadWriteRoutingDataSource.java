@@ -0,0 +1,51 @@
+package com.ecommerce.project.configs;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> primaryReads = ThreadLocal.withInitial(() -> false);
+
+    private final ReplicaStickiness replicaStickiness;
+
+    public ReadWriteRoutingDataSource(ReplicaStickiness replicaStickiness) {
+        this.replicaStickiness = replicaStickiness;
+    }
+
+    /**
+     * Runs {@code action} with its read-only transactions on the primary. Used for reads served
+     * under a {@code CatalogVersion} ETag: a page read from a lagging replica would otherwise be
+     * cached by clients under the newer tag and revalidated as fresh until the next catalog change.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = primaryReads.get();
+        primaryReads.set(true);
+        try {
+            return action.get();
+        } finally {
+            primaryReads.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive())
+            return Route.PRIMARY;
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaStickiness.pinCurrentUser();
+            return Route.PRIMARY;
+        }
+
+        if (primaryReads.get())
+            return Route.PRIMARY;
+        return replicaStickiness.isCurrentUserPinned() ? Route.PRIMARY : Route.REPLICA;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.project.configs;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReplicaStickiness {
+
+    private final long stickyMs;
+
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReplicaStickiness(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    public void pinCurrentUser() {
+        String username = currentUsername();
+        if (username != null)
+            pinnedUntil.put(username, System.currentTimeMillis() + stickyMs);
+    }
+
+    public boolean isCurrentUserPinned() {
+        String username = currentUsername();
+        if (username == null)
+            return false;
+
+        Long until = pinnedUntil.get(username);
+        if (until == null)
+            return false;
+        if (until > System.currentTimeMillis())
+            return true;
+
+        pinnedUntil.remove(username, until);
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${project.datasource.replica.stickyMs:5000}")
+    public void pruneExpired() {
+        long now = System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until <= now);
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken)
+            return null;
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.configs.AppConstants;
+import com.ecommerce.project.payload.CategorySalesDTO;
+import com.ecommerce.project.payload.DailySalesDTO;
+import com.ecommerce.project.payload.ProductSalesDTO;
+import com.ecommerce.project.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @GetMapping("/admin/analytics/top-sellers")
+    public ResponseEntity<List<ProductSalesDTO>> getTopSellers(
+            @RequestParam(name = "limit", defaultValue = AppConstants.TOP_SELLERS_LIMIT, required = false) Integer limit) {
+        List<ProductSalesDTO> topSellers = analyticsService.getTopSellers(limit);
+        return new ResponseEntity<>(topSellers, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/analytics/categories")
+    public ResponseEntity<List<CategorySalesDTO>> getCategorySales() {
+        List<CategorySalesDTO> categorySales = analyticsService.getCategorySales();
+        return new ResponseEntity<>(categorySales, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/analytics/revenue")
+    public ResponseEntity<List<DailySalesDTO>> getRevenueByDay(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailySalesDTO> revenue = analyticsService.getRevenueByDay(from, to);
+        return new ResponseEntity<>(revenue, HttpStatus.OK);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.project.controller;
 
 import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.model.RefreshToken;
 import com.ecommerce.project.model.Role;
 import com.ecommerce.project.model.User;
 import com.ecommerce.project.repositories.RoleRepository;
@@ -10,8 +11,12 @@ import com.ecommerce.project.security.request.LoginRequest;
 import com.ecommerce.project.security.request.SignupRequest;
 import com.ecommerce.project.security.response.MessageResponse;
 import com.ecommerce.project.security.response.UserInfoResponse;
+import com.ecommerce.project.security.services.RefreshTokenService;
+import com.ecommerce.project.security.services.TokenRevocationService;
 import com.ecommerce.project.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -48,6 +53,12 @@ public class AuthController {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
         Authentication authentication;
@@ -71,6 +82,9 @@ public class AuthController {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
         ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(userDetails);
+        String refreshToken = refreshTokenService.issue(userDetails.getId(), userDetails.getUsername());
+        ResponseCookie refreshCookie = jwtUtils.generateRefreshCookie(refreshToken,
+                refreshTokenService.getRefreshExpirationMs());
 
         List<String> roles = authentication.getAuthorities().stream()
                 .map(item -> item.getAuthority())
@@ -80,6 +94,7 @@ public class AuthController {
                 userDetails.getUsername(), roles);
         return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE,
                 jwtCookie.toString())
+                .header(HttpHeaders.SET_COOKIE, refreshCookie.toString())
                 .body(response);
     }
 
@@ -157,10 +172,37 @@ public class AuthController {
         return ResponseEntity.ok().body(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(HttpServletRequest request) {
+        RefreshToken refreshToken = refreshTokenService.consume(jwtUtils.getRefreshTokenFromCookies(request));
+        if (refreshToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.SET_COOKIE, jwtUtils.generateCleanRefreshCookie().toString())
+                    .body(new MessageResponse("Refresh token is invalid or expired"));
+        }
+
+        ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(refreshToken.getUsername());
+        String rotatedToken = refreshTokenService.issue(refreshToken.getUserId(), refreshToken.getUsername());
+        ResponseCookie refreshCookie = jwtUtils.generateRefreshCookie(rotatedToken,
+                refreshTokenService.getRefreshExpirationMs());
+
+        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+                .header(HttpHeaders.SET_COOKIE, refreshCookie.toString())
+                .body(new MessageResponse("Token refreshed successfully!"));
+    }
+
     @PostMapping("/signout")
-    public ResponseEntity<?> signoutUser() {
+    public ResponseEntity<?> signoutUser(HttpServletRequest request) {
+        refreshTokenService.consume(jwtUtils.getRefreshTokenFromCookies(request));
+        String jwt = jwtUtils.getJwtFromCookies(request);
+        Claims claims = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+        if (claims != null) {
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+        }
         ResponseCookie jwtCookie = jwtUtils.generateCleanJwtCookie();
+        ResponseCookie refreshCookie = jwtUtils.generateCleanRefreshCookie();
         return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString())
+                .header(HttpHeaders.SET_COOKIE, refreshCookie.toString())
                 .body(new MessageResponse("You have been signed out successfully!"));
     }
 }
@@ -1,7 +1,9 @@
 package com.ecommerce.project.controller;
 
+import com.ecommerce.project.payload.CartBatchRequestDTO;
 import com.ecommerce.project.payload.CartDTO;
 import com.ecommerce.project.service.CartService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +25,12 @@ public class CartController {
         return new ResponseEntity<>(cartDTO, HttpStatus.CREATED);
     }
 
+    @PostMapping("/carts/batch")
+    public ResponseEntity<CartDTO> applyCartOperations(@Valid @RequestBody CartBatchRequestDTO cartBatchRequestDTO) {
+        CartDTO cartDTO = cartService.applyCartOperations(cartBatchRequestDTO.getOperations());
+        return new ResponseEntity<>(cartDTO, HttpStatus.OK);
+    }
+
     @GetMapping("/carts")
     public ResponseEntity<List<CartDTO>> getAllCarts() {
         List<CartDTO> cartDTOs = cartService.getAllCarts();
@@ -1,15 +1,26 @@
 package com.ecommerce.project.controller;
 
+import com.ecommerce.project.cache.CatalogVersion;
 import com.ecommerce.project.configs.AppConstants;
+import com.ecommerce.project.configs.ReadWriteRoutingDataSource;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilterDTO;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.payload.ProductImportJobDTO;
 import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.service.ProductImportService;
 import com.ecommerce.project.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 
@@ -20,6 +31,15 @@ public class ProductController {
     @Autowired
     ProductService productService;
 
+    @Autowired
+    ProductImportService productImportService;
+
+    @Autowired
+    CatalogVersion catalogVersion;
+
+    @Value("${project.cache.productsCacheControl}")
+    private String productsCacheControl;
+
     @PostMapping("/admin/categories/{categoryId}/product")
     public ResponseEntity<ProductDTO> addProduct(@Valid @RequestBody ProductDTO productDTO,
                                                  @PathVariable Long categoryId) {
@@ -32,9 +52,19 @@ public class ProductController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder) {
-        ProductResponse productResponse = productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "withTotal", defaultValue = AppConstants.WITH_TOTAL, required = false) Boolean withTotal,
+            WebRequest webRequest) {
+        String eTag = catalogVersion.eTag(webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, productsCacheControl).build();
+        }
+        ProductResponse productResponse = ReadWriteRoutingDataSource.onPrimary(
+                () -> productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder, withTotal));
+        return ResponseEntity.ok().eTag(eTag)
+                .header(HttpHeaders.CACHE_CONTROL, productsCacheControl)
+                .body(productResponse);
     }
 
     @GetMapping("/public/categories/{categoryId}/products")
@@ -43,9 +73,28 @@ public class ProductController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder) {
-        ProductResponse productResponse = productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "withTotal", defaultValue = AppConstants.WITH_TOTAL, required = false) Boolean withTotal,
+            WebRequest webRequest) {
+        String eTag = catalogVersion.eTag(webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, productsCacheControl).build();
+        }
+        ProductResponse productResponse = ReadWriteRoutingDataSource.onPrimary(
+                () -> productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder, withTotal));
+        return ResponseEntity.ok().eTag(eTag)
+                .header(HttpHeaders.CACHE_CONTROL, productsCacheControl)
+                .body(productResponse);
+    }
+
+    @GetMapping("/public/products/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+            @RequestParam(name = "categoryId", required = false) Long categoryId) {
+        StreamingResponseBody body = productService.streamProducts(categoryId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/public/products/keyword/{keyword}")
@@ -54,11 +103,48 @@ public class ProductController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder) {
-        ProductResponse productResponse = productService.searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortOrder);
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "withTotal", defaultValue = AppConstants.WITH_TOTAL, required = false) Boolean withTotal) {
+        ProductResponse productResponse = productService.searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortOrder, withTotal);
         return new ResponseEntity<>(productResponse, HttpStatus.FOUND);
     }
 
+    @GetMapping("/public/products/filter")
+    public ResponseEntity<ProductFilterResponse> filterProducts(
+            ProductFilterDTO filter,
+            @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder) {
+        ProductFilterResponse filterResponse = productService.filterProducts(filter, pageNumber, pageSize, sortBy, sortOrder);
+        return new ResponseEntity<>(filterResponse, HttpStatus.OK);
+    }
+
+    @PostMapping("/admin/products/import")
+    public ResponseEntity<ProductImportJobDTO> importProducts(@RequestParam("file") MultipartFile file) throws IOException {
+        ProductImportJobDTO importJobDTO = productImportService.startImport(file);
+        return new ResponseEntity<>(importJobDTO, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/admin/products/import/{jobId}")
+    public ResponseEntity<ProductImportJobDTO> getImportJob(@PathVariable String jobId) {
+        ProductImportJobDTO importJobDTO = productImportService.getImportJob(jobId);
+        return new ResponseEntity<>(importJobDTO, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "format", defaultValue = AppConstants.EXPORT_FORMAT, required = false) String format) {
+        MediaType mediaType = format.equalsIgnoreCase("csv")
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = productImportService.exportProducts(format);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + format.toLowerCase())
+                .body(body);
+    }
+
     @PutMapping("/admin/products/{productId}")
     public ResponseEntity<ProductDTO> updateProduct(@Valid @RequestBody ProductDTO productDTO,
                                                     @PathVariable Long productId) {
@@ -0,0 +1,15 @@
+package com.ecommerce.project.events;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private Order order;
+    private List<OrderItem> orderItems;
+}
@@ -26,5 +26,5 @@ public class CartItem {
 
     private Integer quantity;
     private Double discount;
-    private Double productPrice;
+    private long productPriceCents;
 }
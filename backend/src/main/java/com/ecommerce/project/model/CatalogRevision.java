@@ -0,0 +1,23 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "catalog_revision")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogRevision {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long revision;
+}
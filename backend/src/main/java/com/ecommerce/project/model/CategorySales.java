@@ -0,0 +1,23 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "category_sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySales {
+
+    @Id
+    private Long categoryId;
+
+    private String categoryName;
+    private long unitsSold;
+    private long revenueCents;
+}
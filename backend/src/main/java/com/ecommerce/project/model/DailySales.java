@@ -0,0 +1,25 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySales {
+
+    @Id
+    private LocalDate salesDate;
+
+    private long orderCount;
+    private long unitsSold;
+    private long revenueCents;
+}
@@ -34,7 +34,7 @@ public class Order {
     @JoinColumn(name = "payment_id")
     private Payment payment;
 
-    private Double totalAmount;
+    private long totalAmountCents;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus orderStatus;
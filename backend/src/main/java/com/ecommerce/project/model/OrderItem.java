@@ -26,5 +26,5 @@ public class OrderItem {
 
     private Integer quantity;
     private Double discount;
-    private Double orderedProductPrice;
+    private long orderedProductPriceCents;
 }
@@ -0,0 +1,24 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "product_sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+
+    @Id
+    private Long productId;
+
+    private String productName;
+    private Long categoryId;
+    private long unitsSold;
+    private long revenueCents;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchRequestDTO {
+    @NotEmpty
+    @Size(max = 200, message = "A batch must contain at most 200 operations")
+    @Valid
+    private List<CartOperationDTO> operations = new ArrayList<>();
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.util.MoneyUtils;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CartLineRow {
+    private Long cartId;
+    private double totalPrice;
+    private Long productId;
+    private String productName;
+    private String image;
+    private String description;
+    private Integer quantity;
+    private double price;
+    private double discount;
+    private double specialPrice;
+
+    public CartLineRow(Long cartId, long totalPriceCents, Long productId, String productName, String image,
+                       String description, Integer quantity, Long priceCents, Double discount, Long specialPriceCents) {
+        this.cartId = cartId;
+        this.totalPrice = MoneyUtils.toAmount(totalPriceCents);
+        this.productId = productId;
+        this.productName = productName;
+        this.image = image;
+        this.description = description;
+        this.quantity = quantity;
+        this.price = priceCents != null ? MoneyUtils.toAmount(priceCents) : 0;
+        this.discount = discount != null ? discount : 0;
+        this.specialPrice = specialPriceCents != null ? MoneyUtils.toAmount(specialPriceCents) : 0;
+    }
+}
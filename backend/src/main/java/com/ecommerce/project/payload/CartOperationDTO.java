@@ -0,0 +1,17 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOperationDTO {
+    @NotNull
+    private Long productId;
+
+    @NotNull
+    private Integer quantity;
+}
@@ -10,4 +10,5 @@ import lombok.NoArgsConstructor;
 public class CategoryDTO {
     private Long categoryId;
     private String categoryName;
+    private long productCount;
 }
@@ -0,0 +1,15 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySalesDTO {
+    private Long categoryId;
+    private String categoryName;
+    private long unitsSold;
+    private double revenue;
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.util.MoneyUtils;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ProductExportRow {
+    private Long productId;
+    private Long categoryId;
+    private String productName;
+    private String description;
+    private Integer quantity;
+    private double price;
+    private double discount;
+    private double specialPrice;
+    private String image;
+
+    public ProductExportRow(Long productId, Long categoryId, String productName, String description, Integer quantity,
+                            long priceCents, double discount, long specialPriceCents, String image) {
+        this.productId = productId;
+        this.categoryId = categoryId;
+        this.productName = productName;
+        this.description = description;
+        this.quantity = quantity;
+        this.price = MoneyUtils.toAmount(priceCents);
+        this.discount = discount;
+        this.specialPrice = MoneyUtils.toAmount(specialPriceCents);
+        this.image = image;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResult {
+    private List<Long> productIds;
+    private long totalElements;
+    private Map<Long, Long> categoryCounts;
+    private Map<String, Long> priceBandCounts;
+    private Map<String, Long> discountBandCounts;
+    private long inStockCount;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilterDTO {
+    private Long categoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minSpecialPrice;
+    private Double maxSpecialPrice;
+    private Double minDiscount;
+    private Boolean inStock;
+}
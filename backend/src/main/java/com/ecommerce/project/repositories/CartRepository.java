@@ -1,17 +1,38 @@
 package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.payload.CartLineRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product", "cartItems.product.description"})
     @Query("SELECT c FROM Cart c WHERE c.user.email = ?1")
     Cart findCartByEmail(String email);
 
+    @Query("SELECT new com.ecommerce.project.payload.CartLineRow(c.cartId, c.totalPriceCents, p.productId, " +
+            "p.productName, p.image, p.description, ci.quantity, p.priceCents, p.discount, p.specialPriceCents) " +
+            "FROM Cart c LEFT JOIN c.cartItems ci LEFT JOIN ci.product p WHERE c.user.email = ?1 ORDER BY ci.cartItemId")
+    List<CartLineRow> findCartLinesByEmail(String email);
+
     @Query("SELECT c FROM Cart c JOIN FETCH c.cartItems ci JOIN FETCH ci.product p WHERE p.id = ?1")
     List<Cart> findCartsByProductId(Long productId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product", "cartItems.product.description"})
+    @Query("SELECT c FROM Cart c")
+    List<Cart> findAllWithItems();
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalPriceCents = 0, c.version = c.version + 1 WHERE c.cartId = ?1 AND c.version = ?2")
+    int clearCart(Long cartId, Long version);
 }
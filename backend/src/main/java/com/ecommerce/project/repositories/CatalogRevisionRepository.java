@@ -0,0 +1,19 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.model.CatalogRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogRevisionRepository extends JpaRepository<CatalogRevision, Integer> {
+    @Modifying
+    @Query("UPDATE CatalogRevision c SET c.revision = c.revision + 1 WHERE c.id = " + CatalogRevision.ID)
+    int increment();
+
+    @Query("SELECT c.revision FROM CatalogRevision c WHERE c.id = " + CatalogRevision.ID)
+    Optional<Long> findRevision();
+}
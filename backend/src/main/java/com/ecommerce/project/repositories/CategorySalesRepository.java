@@ -0,0 +1,18 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.model.CategorySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategorySalesRepository extends JpaRepository<CategorySales, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO category_sales (category_id, category_name, units_sold, revenue_cents) "
+            + "VALUES (?1, ?2, ?3, ?4) ON CONFLICT (category_id) DO UPDATE SET "
+            + "category_name = EXCLUDED.category_name, "
+            + "units_sold = category_sales.units_sold + EXCLUDED.units_sold, "
+            + "revenue_cents = category_sales.revenue_cents + EXCLUDED.revenue_cents", nativeQuery = true)
+    void addSales(Long categoryId, String categoryName, long unitsSold, long revenueCents);
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.model.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales (sales_date, order_count, units_sold, revenue_cents) "
+            + "VALUES (?1, ?2, ?3, ?4) ON CONFLICT (sales_date) DO UPDATE SET "
+            + "order_count = daily_sales.order_count + EXCLUDED.order_count, "
+            + "units_sold = daily_sales.units_sold + EXCLUDED.units_sold, "
+            + "revenue_cents = daily_sales.revenue_cents + EXCLUDED.revenue_cents", nativeQuery = true)
+    void addSales(LocalDate salesDate, long orderCount, long unitsSold, long revenueCents);
+}
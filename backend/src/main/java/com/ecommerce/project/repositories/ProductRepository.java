@@ -2,15 +2,62 @@ package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
-import org.springframework.data.domain.Page;
+import com.ecommerce.project.payload.ProductExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    Page<Product> findByCategoryOrderByPriceAsc(Category category, Pageable pageDetails);
-    Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = {"category", "description"})
+    Slice<Product> findAllBy(Pageable pageDetails);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = {"category", "description"})
+    Slice<Product> findByCategory(Category category, Pageable pageDetails);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = {"category", "description"})
+    Slice<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+
+    @EntityGraph(attributePaths = {"category", "description"})
+    Optional<Product> findWithDescriptionByProductId(Long productId);
+
+    @EntityGraph(attributePaths = {"category", "description"})
+    List<Product> findWithDescriptionByProductIdIn(Collection<Long> productIds);
+
+    long countByCategory(Category category);
+    long countByProductNameLikeIgnoreCase(String keyword);
+
+    @Query("SELECT p.productId, p.productName, c.categoryId, p.priceCents, p.specialPriceCents, p.discount, p.quantity " +
+            "FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findFacetRows();
+
+    @Query("SELECT p.category.categoryId, p.productName FROM Product p")
+    List<Object[]> findCategoryProductNames();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.ecommerce.project.payload.ProductExportRow(p.productId, c.categoryId, p.productName, " +
+            "p.description, p.quantity, p.priceCents, p.discount, p.specialPriceCents, p.image) " +
+            "FROM Product p LEFT JOIN p.category c ORDER BY p.productId")
+    Stream<ProductExportRow> streamExportRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.ecommerce.project.payload.ProductExportRow(p.productId, c.categoryId, p.productName, " +
+            "p.description, p.quantity, p.priceCents, p.discount, p.specialPriceCents, p.image) " +
+            "FROM Product p JOIN p.category c WHERE c.categoryId = :categoryId ORDER BY p.productId")
+    Stream<ProductExportRow> streamExportRowsByCategory(@Param("categoryId") Long categoryId);
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.model.ProductSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO product_sales (product_id, product_name, category_id, units_sold, revenue_cents) "
+            + "VALUES (?1, ?2, ?3, ?4, ?5) ON CONFLICT (product_id) DO UPDATE SET "
+            + "product_name = EXCLUDED.product_name, category_id = EXCLUDED.category_id, "
+            + "units_sold = product_sales.units_sold + EXCLUDED.units_sold, "
+            + "revenue_cents = product_sales.revenue_cents + EXCLUDED.revenue_cents", nativeQuery = true)
+    void addSales(Long productId, String productName, Long categoryId, long unitsSold, long revenueCents);
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tokenHash = ?1")
+    int deleteByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < ?1")
+    int deleteExpired(Instant now);
+}
@@ -4,6 +4,7 @@ import com.ecommerce.project.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -17,10 +18,13 @@ import org.springframework.web.util.WebUtils;
 import javax.crypto.SecretKey;
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
+    public static final String CLAIMS_ATTRIBUTE = JwtUtils.class.getName() + ".claims";
+
     @Value("${spring.app.jwtSecret}")
     private String jwtSecret;
 
@@ -30,8 +34,14 @@ public class JwtUtils {
     @Value("${spring.app.jwtCookieName}")
     private String jwtCookie;
 
+    @Value("${spring.app.jwtRefreshCookieName}")
+    private String jwtRefreshCookie;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    private volatile Key signingKey;
+    private volatile JwtParser jwtParser;
+
     public String getJwtFromCookies(HttpServletRequest request) {
         Cookie cookie = WebUtils.getCookie(request, jwtCookie);
         if (cookie != null) {
@@ -40,8 +50,20 @@ public class JwtUtils {
         return null;
     }
 
+    public String getRefreshTokenFromCookies(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, jwtRefreshCookie);
+        if (cookie != null) {
+            return cookie.getValue();
+        }
+        return null;
+    }
+
     public ResponseCookie generateJwtCookie(UserDetailsImpl userDetails) {
-        String jwt =generateTokenFromUsername(userDetails.getUsername());
+        return generateJwtCookie(userDetails.getUsername());
+    }
+
+    public ResponseCookie generateJwtCookie(String username) {
+        String jwt = generateTokenFromUsername(username);
         ResponseCookie cookie = ResponseCookie.from(jwtCookie, jwt)
                 .path("/api")
                 .maxAge(24 * 60 * 60)
@@ -50,6 +72,20 @@ public class JwtUtils {
         return cookie;
     }
 
+    public ResponseCookie generateRefreshCookie(String refreshToken, long maxAgeMs) {
+        return ResponseCookie.from(jwtRefreshCookie, refreshToken)
+                .path("/api/auth")
+                .maxAge(maxAgeMs / 1000)
+                .httpOnly(true)
+                .build();
+    }
+
+    public ResponseCookie generateCleanRefreshCookie() {
+        return ResponseCookie.from(jwtRefreshCookie, null)
+                .path("/api/auth")
+                .build();
+    }
+
     public ResponseCookie generateCleanJwtCookie() {
         ResponseCookie cookie = ResponseCookie.from(jwtCookie, null)
                 .path("/api")
@@ -59,6 +95,7 @@ public class JwtUtils {
 
     public String generateTokenFromUsername(String username) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date(new Date().getTime() + Long.parseLong(jwtExpirationMs)))
@@ -66,23 +103,15 @@ public class JwtUtils {
                 .compact();
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build().parseSignedClaims(token)
-                .getPayload().getSubject();
-    }
-
     public Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        if (signingKey == null)
+            signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        return signingKey;
     }
 
-    public boolean validateJwtToken(String authToken) {
+    public Claims parseJwtToken(String authToken) {
         try {
-            System.out.println("Validate");
-            Jwts.parser().verifyWith((SecretKey) key())
-                    .build().parseSignedClaims(authToken);
-            return true;
+            return parser().parseSignedClaims(authToken).getPayload();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT Token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -91,8 +120,16 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    private JwtParser parser() {
+        if (jwtParser == null)
+            jwtParser = Jwts.parser().verifyWith((SecretKey) key()).build();
+        return jwtParser;
     }
 
 }
@@ -0,0 +1,34 @@
+package com.ecommerce.project.security.services;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that asks for a rehash whenever the stored cost differs from the configured
+ * strength. The stock encoder only upgrades weaker hashes, so lowering the strength to cut
+ * login latency would otherwise never take effect for existing users.
+ */
+public class BCryptStrengthPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    public BCryptStrengthPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null)
+            return false;
+
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        if (!matcher.find())
+            return super.upgradeEncoding(encodedPassword);
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.project.security.services;
+
+import com.ecommerce.project.model.RefreshToken;
+import com.ecommerce.project.repositories.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RefreshTokenService {
+
+    private static final int MAX_CACHED_SESSIONS = 100_000;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${spring.app.jwtRefreshExpirationMs}")
+    private long refreshExpirationMs;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Map<String, RefreshToken> sessions = new ConcurrentHashMap<>();
+
+    @Transactional
+    public String issue(Long userId, String username) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken(hash(token), userId, username,
+                Instant.now().plusMillis(refreshExpirationMs));
+        refreshTokenRepository.save(refreshToken);
+        if (sessions.size() < MAX_CACHED_SESSIONS)
+            sessions.put(refreshToken.getTokenHash(), refreshToken);
+        return token;
+    }
+
+    @Transactional
+    public RefreshToken consume(String token) {
+        if (token == null || token.isBlank())
+            return null;
+
+        String tokenHash = hash(token);
+        RefreshToken refreshToken = sessions.remove(tokenHash);
+        if (refreshToken == null)
+            refreshToken = refreshTokenRepository.findById(tokenHash).orElse(null);
+        if (refreshToken == null)
+            return null;
+
+        if (refreshTokenRepository.deleteByTokenHash(tokenHash) == 0)
+            return null;
+        if (refreshToken.getExpiresAt().isBefore(Instant.now()))
+            return null;
+        return refreshToken;
+    }
+
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.jwtRefreshPruneIntervalMs:3600000}")
+    @Transactional
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        sessions.values().removeIf(refreshToken -> refreshToken.getExpiresAt().isBefore(now));
+        refreshTokenRepository.deleteExpired(now);
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
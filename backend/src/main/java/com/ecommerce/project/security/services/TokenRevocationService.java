@@ -0,0 +1,87 @@
+package com.ecommerce.project.security.services;
+
+import com.ecommerce.project.model.RevokedToken;
+import com.ecommerce.project.repositories.RevokedTokenRepository;
+import com.ecommerce.project.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${project.security.revocation.expectedTokens}")
+    private int expectedTokens;
+
+    @Value("${project.security.revocation.falsePositiveRate}")
+    private double falsePositiveRate;
+
+    @Value("${project.security.revocation.syncOverlapMs}")
+    private long syncOverlapMs;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSync;
+
+    @PostConstruct
+    public void load() {
+        lastSync = Instant.now();
+        revokedTokenRepository.findByExpiresAtAfter(lastSync)
+                .forEach(token -> revoked.put(token.getJti(), token.getExpiresAt()));
+        rebuildFilter();
+    }
+
+    @Scheduled(fixedDelayString = "${project.security.revocation.syncIntervalMs:5000}")
+    public void syncFromDatabase() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minusMillis(syncOverlapMs), now)
+                .forEach(token -> remember(token.getJti(), token.getExpiresAt()));
+        lastSync = now;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti))
+            return false;
+        return revoked.containsKey(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now()))
+            return;
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt, Instant.now()));
+        remember(jti, expiresAt);
+    }
+
+    private void remember(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        bloomFilter.put(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${project.security.revocation.pruneIntervalMs:600000}")
+    @Transactional
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        if (revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now)))
+            rebuildFilter();
+        revokedTokenRepository.deleteExpired(now);
+    }
+
+    private synchronized void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(filter::put);
+        bloomFilter = filter;
+        // Revocations that raced with the first pass may have been added to the previous filter only.
+        revoked.keySet().forEach(filter::put);
+    }
+}
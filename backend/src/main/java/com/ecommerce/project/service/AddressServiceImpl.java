@@ -10,6 +10,7 @@ import com.ecommerce.project.util.AuthUtil;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,15 +39,12 @@ public class AddressServiceImpl implements AddressService{
         address.setUser(user);
         Address savedAddress = addressRepository.save(address);
 
-        List<Address> addresses = user.getAddresses();
-        addresses.add(savedAddress);
-        user.setAddresses(addresses);
-
         AddressDTO savedAddressDTO = modelMapper.map(savedAddress, AddressDTO.class);
         return savedAddressDTO;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AddressDTO> getAllAddresses() {
         List<Address> addresses = addressRepository.findAll();
         List<AddressDTO> addressDTOS = addresses.stream()
@@ -57,6 +55,7 @@ public class AddressServiceImpl implements AddressService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AddressDTO getAddressById(Long addressId) {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId));
@@ -65,6 +64,7 @@ public class AddressServiceImpl implements AddressService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AddressDTO> getUserAddresses() {
         User user = authUtil.loggedInUser();
         if (user == null) {
@@ -98,10 +98,7 @@ public class AddressServiceImpl implements AddressService{
 
         Address updatedAddress = addressRepository.save(address);
 
-        user.getAddresses().removeIf(address1 -> address1.getAddressId().equals(addressId));
-        user.getAddresses().add(updatedAddress);
-
-        AddressDTO updatedAddressDTO = modelMapper.map(address, AddressDTO.class);
+        AddressDTO updatedAddressDTO = modelMapper.map(updatedAddress, AddressDTO.class);
         return updatedAddressDTO;
     }
 
@@ -116,8 +113,6 @@ public class AddressServiceImpl implements AddressService{
 
         addressRepository.delete(address);
 
-        user.getAddresses().removeIf(address1 -> address1.getAddressId().equals(addressId));
-
         return "Address deleted successfully!";
     }
 }
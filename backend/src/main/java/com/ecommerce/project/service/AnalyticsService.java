@@ -0,0 +1,21 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.events.OrderPlacedEvent;
+import com.ecommerce.project.payload.CategorySalesDTO;
+import com.ecommerce.project.payload.DailySalesDTO;
+import com.ecommerce.project.payload.ProductSalesDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+    void recordOrder(OrderPlacedEvent event);
+
+    List<ProductSalesDTO> getTopSellers(Integer limit);
+
+    List<CategorySalesDTO> getCategorySales();
+
+    List<DailySalesDTO> getRevenueByDay(LocalDate from, LocalDate to);
+
+    void flush();
+}
@@ -0,0 +1,335 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.configs.AppConstants;
+import com.ecommerce.project.events.OrderPlacedEvent;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.*;
+import com.ecommerce.project.payload.CategorySalesDTO;
+import com.ecommerce.project.payload.DailySalesDTO;
+import com.ecommerce.project.payload.ProductSalesDTO;
+import com.ecommerce.project.repositories.CategorySalesRepository;
+import com.ecommerce.project.repositories.DailySalesRepository;
+import com.ecommerce.project.repositories.ProductSalesRepository;
+import com.ecommerce.project.util.MoneyUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private CategorySalesRepository categorySalesRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, ProductRollup> productRollups = new ConcurrentHashMap<>();
+    private final Map<Long, CategoryRollup> categoryRollups = new ConcurrentHashMap<>();
+    private final NavigableMap<LocalDate, DailyRollup> dailyRollups = new ConcurrentSkipListMap<>();
+
+    private final Set<Long> dirtyProducts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyCategories = ConcurrentHashMap.newKeySet();
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    private static final Comparator<RankedProduct> BY_UNITS_SOLD = Comparator
+            .comparingLong(RankedProduct::unitsSold).reversed()
+            .thenComparingLong(RankedProduct::productId);
+
+    // The best-selling products, capped at the largest limit the endpoint serves. Unit counts
+    // only grow and every change re-ranks the product, so one that falls out comes back as soon
+    // as it outsells the last entry.
+    private final TreeSet<RankedProduct> topSellers = new TreeSet<>(BY_UNITS_SOLD);
+    private final Map<Long, RankedProduct> rankedProducts = new HashMap<>();
+
+    /**
+     * Loads the stored totals, which include every node's flushed sales. Runs at startup and after
+     * each flush, so orders placed on other nodes show up here within one flush interval.
+     */
+    @PostConstruct
+    public void loadSummaries() {
+        productSalesRepository.findAll().forEach(sales -> {
+            ProductRollup rollup = productRollups.computeIfAbsent(sales.getProductId(),
+                    id -> new ProductRollup(id, sales.getProductName(), sales.getCategoryId()));
+            rollup.rebase(sales.getUnitsSold(), sales.getRevenueCents());
+            rank(rollup);
+        });
+        categorySalesRepository.findAll().forEach(sales ->
+                categoryRollups.computeIfAbsent(sales.getCategoryId(),
+                                id -> new CategoryRollup(id, sales.getCategoryName()))
+                        .rebase(sales.getUnitsSold(), sales.getRevenueCents()));
+        dailySalesRepository.findAll().forEach(sales ->
+                dailyRollups.computeIfAbsent(sales.getSalesDate(), DailyRollup::new)
+                        .rebase(sales.getOrderCount(), sales.getUnitsSold(), sales.getRevenueCents()));
+    }
+
+    @TransactionalEventListener
+    @Override
+    public void recordOrder(OrderPlacedEvent event) {
+        Order order = event.getOrder();
+        DailyRollup day = dailyRollups.computeIfAbsent(order.getOrderDate(), DailyRollup::new);
+        day.orders.increment();
+
+        for (OrderItem item : event.getOrderItems()) {
+            Product product = item.getProduct();
+            long units = item.getQuantity();
+            long revenueCents = item.getOrderedProductPriceCents() * units;
+
+            ProductRollup rollup = productRollups.computeIfAbsent(product.getProductId(),
+                    id -> new ProductRollup(id, product.getProductName(),
+                            product.getCategory() != null ? product.getCategory().getCategoryId() : null));
+            rollup.add(units, revenueCents);
+            rank(rollup);
+            dirtyProducts.add(product.getProductId());
+
+            Category category = product.getCategory();
+            if (category != null) {
+                categoryRollups.computeIfAbsent(category.getCategoryId(),
+                        id -> new CategoryRollup(id, category.getCategoryName()))
+                        .add(units, revenueCents);
+                dirtyCategories.add(category.getCategoryId());
+            }
+
+            day.add(units, revenueCents);
+        }
+        dirtyDays.add(order.getOrderDate());
+    }
+
+    @Override
+    public List<ProductSalesDTO> getTopSellers(Integer limit) {
+        if (limit < 1 || limit > AppConstants.MAX_TOP_SELLERS_LIMIT)
+            throw new APIException("Limit must be between 1 and " + AppConstants.MAX_TOP_SELLERS_LIMIT + "!");
+
+        List<Long> productIds = new ArrayList<>(limit);
+        synchronized (topSellers) {
+            for (RankedProduct ranked : topSellers) {
+                if (productIds.size() == limit)
+                    break;
+                productIds.add(ranked.productId());
+            }
+        }
+
+        return productIds.stream()
+                .map(productId -> productRollups.get(productId).toDTO())
+                .toList();
+    }
+
+    private void rank(ProductRollup rollup) {
+        synchronized (topSellers) {
+            RankedProduct previous = rankedProducts.remove(rollup.productId);
+            if (previous != null)
+                topSellers.remove(previous);
+
+            // Read the total under the lock so the last caller always ranks the latest count.
+            RankedProduct ranked = new RankedProduct(rollup.productId, rollup.units());
+            if (topSellers.size() >= AppConstants.MAX_TOP_SELLERS_LIMIT
+                    && BY_UNITS_SOLD.compare(ranked, topSellers.last()) > 0)
+                return;
+
+            topSellers.add(ranked);
+            rankedProducts.put(ranked.productId(), ranked);
+            if (topSellers.size() > AppConstants.MAX_TOP_SELLERS_LIMIT)
+                rankedProducts.remove(topSellers.pollLast().productId());
+        }
+    }
+
+    @Override
+    public List<CategorySalesDTO> getCategorySales() {
+        return categoryRollups.values().stream()
+                .map(CategoryRollup::toDTO)
+                .sorted(Comparator.comparingDouble(CategorySalesDTO::getRevenue).reversed())
+                .toList();
+    }
+
+    @Override
+    public List<DailySalesDTO> getRevenueByDay(LocalDate from, LocalDate to) {
+        if (from.isAfter(to))
+            throw new APIException("Start date must not be after end date!");
+
+        return dailyRollups.subMap(from, true, to, true).values().stream()
+                .map(DailyRollup::toDTO)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${project.analytics.flushIntervalMs:60000}")
+    @Override
+    public synchronized void flush() {
+        flush(dirtyProducts, productRollups, (rollup, delta) -> productSalesRepository.addSales(rollup.productId,
+                rollup.productName, rollup.categoryId, delta.units(), delta.revenueCents()));
+        flush(dirtyCategories, categoryRollups, (rollup, delta) -> categorySalesRepository.addSales(
+                rollup.categoryId, rollup.categoryName, delta.units(), delta.revenueCents()));
+        flush(dirtyDays, dailyRollups, (rollup, delta) -> dailySalesRepository.addSales(
+                rollup.salesDate, delta.orders(), delta.units(), delta.revenueCents()));
+        loadSummaries();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Adds the sales recorded here since the last flush to the stored rows. Writing increments
+     * rather than totals lets several nodes share the summary tables. Keys are drained before the
+     * write so that orders recorded meanwhile mark them dirty again; if the write fails they are
+     * put back and the same increments are retried on the next flush.
+     */
+    private <K, R extends Rollup> void flush(Set<K> dirtyKeys, Map<K, R> rollups, BiConsumer<R, Delta> writer) {
+        List<K> keys = drain(dirtyKeys);
+        Map<R, Delta> deltas = new LinkedHashMap<>();
+        for (K key : keys) {
+            R rollup = rollups.get(key);
+            Delta delta = rollup.unflushed();
+            if (!delta.isEmpty())
+                deltas.put(rollup, delta);
+        }
+        if (deltas.isEmpty())
+            return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> deltas.forEach(writer));
+        } catch (RuntimeException e) {
+            dirtyKeys.addAll(keys);
+            throw e;
+        }
+        deltas.forEach(Rollup::markFlushed);
+    }
+
+    private <K> List<K> drain(Set<K> dirtyKeys) {
+        List<K> keys = new ArrayList<>();
+        for (K key : dirtyKeys) {
+            if (dirtyKeys.remove(key))
+                keys.add(key);
+        }
+        return keys;
+    }
+
+    private record RankedProduct(long productId, long unitsSold) {
+    }
+
+    private record Delta(long orders, long units, long revenueCents) {
+        boolean isEmpty() {
+            return orders == 0 && units == 0 && revenueCents == 0;
+        }
+    }
+
+    /**
+     * Totals for one key: the stored part loaded from the summary table, less what this node had
+     * already added to it, plus the sales recorded on this node. The flushed counters are only
+     * touched by the synchronized {@link #flush()}.
+     */
+    private static class Rollup {
+        final LongAdder units = new LongAdder();
+        final LongAdder revenueCents = new LongAdder();
+        volatile long storedUnits;
+        volatile long storedRevenueCents;
+        long flushedUnits;
+        long flushedRevenueCents;
+
+        void add(long unitsSold, long lineRevenueCents) {
+            units.add(unitsSold);
+            revenueCents.add(lineRevenueCents);
+        }
+
+        void rebase(long unitsSold, long totalRevenueCents) {
+            storedUnits = unitsSold - flushedUnits;
+            storedRevenueCents = totalRevenueCents - flushedRevenueCents;
+        }
+
+        Delta unflushed() {
+            return new Delta(0, units.sum() - flushedUnits, revenueCents.sum() - flushedRevenueCents);
+        }
+
+        void markFlushed(Delta delta) {
+            flushedUnits += delta.units();
+            flushedRevenueCents += delta.revenueCents();
+        }
+
+        long units() {
+            return storedUnits + units.sum();
+        }
+
+        double revenue() {
+            return MoneyUtils.toAmount(storedRevenueCents + revenueCents.sum());
+        }
+    }
+
+    private static class ProductRollup extends Rollup {
+        final Long productId;
+        final String productName;
+        final Long categoryId;
+
+        ProductRollup(Long productId, String productName, Long categoryId) {
+            this.productId = productId;
+            this.productName = productName;
+            this.categoryId = categoryId;
+        }
+
+        ProductSalesDTO toDTO() {
+            return new ProductSalesDTO(productId, productName, categoryId, units(), revenue());
+        }
+    }
+
+    private static class CategoryRollup extends Rollup {
+        final Long categoryId;
+        final String categoryName;
+
+        CategoryRollup(Long categoryId, String categoryName) {
+            this.categoryId = categoryId;
+            this.categoryName = categoryName;
+        }
+
+        CategorySalesDTO toDTO() {
+            return new CategorySalesDTO(categoryId, categoryName, units(), revenue());
+        }
+    }
+
+    private static class DailyRollup extends Rollup {
+        final LocalDate salesDate;
+        final LongAdder orders = new LongAdder();
+        volatile long storedOrders;
+        long flushedOrders;
+
+        DailyRollup(LocalDate salesDate) {
+            this.salesDate = salesDate;
+        }
+
+        void rebase(long orderCount, long unitsSold, long totalRevenueCents) {
+            storedOrders = orderCount - flushedOrders;
+            rebase(unitsSold, totalRevenueCents);
+        }
+
+        @Override
+        Delta unflushed() {
+            Delta delta = super.unflushed();
+            return new Delta(orders.sum() - flushedOrders, delta.units(), delta.revenueCents());
+        }
+
+        @Override
+        void markFlushed(Delta delta) {
+            super.markFlushed(delta);
+            flushedOrders += delta.orders();
+        }
+
+        DailySalesDTO toDTO() {
+            return new DailySalesDTO(salesDate, storedOrders + orders.sum(), units(), revenue());
+        }
+    }
+}
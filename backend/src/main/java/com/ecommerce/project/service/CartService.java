@@ -1,6 +1,7 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.CartOperationDTO;
 
 import java.util.List;
 
@@ -13,7 +14,11 @@ public interface CartService {
 
     CartDTO updateProductQuantityInCart(Long productId, Integer quantity);
 
+    CartDTO applyCartOperations(List<CartOperationDTO> operations);
+
     String deleteProductFromCart(Long cartId, Long productId);
 
     void updateProductInCarts(Long cartId, Long productId);
+
+    void flushPendingChanges(String emailId);
 }
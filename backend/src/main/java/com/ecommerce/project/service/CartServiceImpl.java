@@ -1,23 +1,32 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.cache.WriteBehindCartStore;
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
 import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.model.CartItem;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.CartLineRow;
+import com.ecommerce.project.payload.CartOperationDTO;
 import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.repositories.CartItemRepository;
 import com.ecommerce.project.repositories.CartRepository;
 import com.ecommerce.project.repositories.ProductRepository;
 import com.ecommerce.project.util.AuthUtil;
-import jakarta.transaction.Transactional;
+import com.ecommerce.project.util.OptimisticLockRetry;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,13 +48,23 @@ public class CartServiceImpl implements CartService{
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Autowired
+    @Qualifier("readOnlyTransactionTemplate")
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired(required = false)
+    private WriteBehindCartStore writeBehindCartStore;
+
     private Cart createCart() {
         Cart userCart = cartRepository.findCartByEmail(authUtil.loggedInEmail());
         if (userCart != null) {
             return userCart;
         }
         Cart cart = new Cart();
-        cart.setTotalPrice(0.0);
+        cart.setTotalPriceCents(0);
         cart.setUser(authUtil.loggedInUser());
         return cartRepository.save(cart);
     }
@@ -60,7 +79,11 @@ public class CartServiceImpl implements CartService{
 
     @Override
     public CartDTO addProductToCart(Long productId, Integer quantity) {
+        flushPendingChanges(authUtil.loggedInEmail());
+        return optimisticLockRetry.execute("addProductToCart", () -> addProduct(productId, quantity));
+    }
 
+    private CartDTO addProduct(Long productId, Integer quantity) {
         Cart cart = createCart();
 
         Product product = productRepository.findById(productId)
@@ -86,12 +109,12 @@ public class CartServiceImpl implements CartService{
         newCartItem.setCart(cart);
         newCartItem.setQuantity(quantity);
         newCartItem.setDiscount(product.getDiscount());
-        newCartItem.setProductPrice(product.getSpecialPrice());
+        newCartItem.setProductPriceCents(product.getSpecialPriceCents());
         cartItemRepository.save(newCartItem);
 
         //product.setQuantity(product.getQuantity() - quantity);
 
-        cart.setTotalPrice(cart.getTotalPrice() + product.getSpecialPrice() * quantity);
+        cart.setTotalPriceCents(cart.getTotalPriceCents() + product.getSpecialPriceCents() * quantity);
         Cart savedCart = cartRepository.save(cart);
         CartDTO cartDTO = modelMapper.map(savedCart, CartDTO.class);
 
@@ -109,16 +132,25 @@ public class CartServiceImpl implements CartService{
 
     @Override
     public List<CartDTO> getAllCarts() {
-        List<Cart> carts = cartRepository.findAll();
-        if (carts.isEmpty()) {
-            throw new APIException("No carts exists");
-        }
+        if (writeBehindCartStore != null)
+            writeBehindCartStore.flush();
 
+        return readOnlyTransactionTemplate.execute(status -> {
+            List<Cart> carts = cartRepository.findAllWithItems();
+            if (carts.isEmpty()) {
+                throw new APIException("No carts exists");
+            }
+
+            return toCartDTOs(carts);
+        });
+    }
+
+    private List<CartDTO> toCartDTOs(List<Cart> carts) {
         List<CartDTO> cartDTOs = carts.stream()
                 .map(cart -> {
                     CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
                     List<ProductDTO> products = cart.getCartItems().stream()
-                            .map(p -> modelMapper.map(p, ProductDTO.class))
+                            .map(p -> modelMapper.map(p.getProduct(), ProductDTO.class))
                             .collect(Collectors.toList());
                     cartDTO.setProducts(products);
                     return cartDTO;
@@ -128,25 +160,44 @@ public class CartServiceImpl implements CartService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CartDTO getCart() {
-        Cart cart = getCurrentUserCart();
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+        String email = authUtil.loggedInEmail();
+        if (writeBehindCartStore != null) {
+            CartDTO cached = writeBehindCartStore.getCart(email);
+            if (cached != null)
+                return cached;
+        }
 
-        List<CartItem> cartItems = cart.getCartItems();
-        Stream<ProductDTO> productDTOStream = cartItems.stream().map(item -> {
-            ProductDTO map = modelMapper.map(item.getProduct(), ProductDTO.class);
-            map.setQuantity(item.getQuantity());
-            return map;
-        });
+        List<CartLineRow> lines = cartRepository.findCartLinesByEmail(email);
+        if (lines.isEmpty()) {
+            throw new ResourceNotFoundException("Cart", "emailId", email);
+        }
 
-        cartDTO.setProducts(productDTOStream.toList());
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setCartId(lines.get(0).getCartId());
+        cartDTO.setTotalPrice(lines.get(0).getTotalPrice());
+        cartDTO.setProducts(lines.stream()
+                .filter(line -> line.getProductId() != null)
+                .map(line -> new ProductDTO(line.getProductId(), line.getProductName(), line.getImage(),
+                        line.getDescription(), line.getQuantity(), line.getPrice(), line.getDiscount(),
+                        line.getSpecialPrice()))
+                .toList());
 
         return cartDTO;
     }
 
-    @Transactional
     @Override
     public CartDTO updateProductQuantityInCart(Long productId, Integer quantity) {
+        if (writeBehindCartStore != null) {
+            Product product = productRepository.findWithDescriptionByProductId(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+            return writeBehindCartStore.updateQuantity(authUtil.loggedInEmail(), product, quantity);
+        }
+        return optimisticLockRetry.execute("updateProductQuantityInCart", () -> updateQuantity(productId, quantity));
+    }
+
+    private CartDTO updateQuantity(Long productId, Integer quantity) {
         Cart cart = getCurrentUserCart();
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
@@ -174,10 +225,10 @@ public class CartServiceImpl implements CartService{
             deleteProductFromCart(cart.getCartId(), productId);
         }
         else {
-            cartItem.setProductPrice(product.getSpecialPrice());
+            cartItem.setProductPriceCents(product.getSpecialPriceCents());
             cartItem.setQuantity(cartItem.getQuantity() + quantity);
             cartItem.setDiscount(product.getDiscount());
-            cart.setTotalPrice(cart.getTotalPrice() + (cartItem.getProductPrice() * quantity));
+            cart.setTotalPriceCents(cart.getTotalPriceCents() + (cartItem.getProductPriceCents() * quantity));
             cartRepository.save(cart);
         }
 
@@ -202,10 +253,83 @@ public class CartServiceImpl implements CartService{
         return cartDTO;
     }
 
-    @Transactional
+    @Override
+    public CartDTO applyCartOperations(List<CartOperationDTO> operations) {
+        flushPendingChanges(authUtil.loggedInEmail());
+        return optimisticLockRetry.execute("applyCartOperations", () -> applyOperations(operations));
+    }
+
+    private CartDTO applyOperations(List<CartOperationDTO> operations) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        operations.forEach(op -> deltas.merge(op.getProductId(), op.getQuantity(), Integer::sum));
+
+        Map<Long, Product> products = productRepository.findAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        for (Long productId : deltas.keySet()) {
+            if (!products.containsKey(productId))
+                throw new ResourceNotFoundException("Product", "productId", productId);
+        }
+
+        Cart cart = createCart();
+        Map<Long, CartItem> cartItems = cart.getCartItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getProductId(), Function.identity()));
+
+        deltas.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            CartItem cartItem = cartItems.get(productId);
+            int newQuantity = (cartItem != null ? cartItem.getQuantity() : 0) + quantity;
+
+            if (newQuantity < 0) {
+                throw new APIException("The resulting quantity of " + product.getProductName() + " cannot be less than zero!");
+            }
+            if (quantity > 0 && product.getQuantity() == 0) {
+                throw new APIException(("Product: " + product.getProductName() + " is not available!"));
+            }
+            if (product.getQuantity() < newQuantity) {
+                throw new APIException(("Please make an order of the " + product.getProductName()
+                        + " less than or equal to " + product.getQuantity() + "."));
+            }
+
+            if (newQuantity == 0) {
+                if (cartItem != null)
+                    cart.getCartItems().remove(cartItem);
+                return;
+            }
+
+            if (cartItem == null) {
+                cartItem = new CartItem();
+                cartItem.setProduct(product);
+                cartItem.setCart(cart);
+                cart.getCartItems().add(cartItem);
+            }
+            cartItem.setQuantity(newQuantity);
+            cartItem.setDiscount(product.getDiscount());
+            cartItem.setProductPriceCents(product.getSpecialPriceCents());
+        });
+
+        cart.setTotalPriceCents(cart.getCartItems().stream()
+                .mapToLong(item -> item.getProductPriceCents() * item.getQuantity())
+                .sum());
+        Cart savedCart = cartRepository.save(cart);
+
+        CartDTO cartDTO = modelMapper.map(savedCart, CartDTO.class);
+        cartDTO.setProducts(savedCart.getCartItems().stream().map(item -> {
+            ProductDTO productDTO = modelMapper.map(item.getProduct(), ProductDTO.class);
+            productDTO.setQuantity(item.getQuantity());
+            return productDTO;
+        }).toList());
+
+        return cartDTO;
+    }
+
     @Override
     public String deleteProductFromCart(Long cartId, Long productId) {
+        if (writeBehindCartStore != null)
+            writeBehindCartStore.flushAndEvictCart(cartId);
+        return optimisticLockRetry.execute("deleteProductFromCart", () -> deleteProduct(cartId, productId));
+    }
 
+    private String deleteProduct(Long cartId, Long productId) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
 
@@ -214,7 +338,7 @@ public class CartServiceImpl implements CartService{
             throw new APIException(("Product does not exist in the cart!"));
         }
 
-        cart.setTotalPrice(cart.getTotalPrice() - (cartItem.getProductPrice() * cartItem.getQuantity()));
+        cart.setTotalPriceCents(cart.getTotalPriceCents() - (cartItem.getProductPriceCents() * cartItem.getQuantity()));
         cartRepository.save(cart);
 
         cartItemRepository.deleteByCartItemByCartIdAndProductID(cartId, productId);
@@ -224,6 +348,15 @@ public class CartServiceImpl implements CartService{
 
     @Override
     public void updateProductInCarts(Long cartId, Long productId) {
+        if (writeBehindCartStore != null)
+            writeBehindCartStore.flushAndEvictCart(cartId);
+        optimisticLockRetry.execute("updateProductInCarts", () -> {
+            repriceCartItem(cartId, productId);
+            return null;
+        });
+    }
+
+    private void repriceCartItem(Long cartId, Long productId) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
 
@@ -236,12 +369,18 @@ public class CartServiceImpl implements CartService{
             throw new APIException("Product " + product.getProductName() + " not available in the cart!");
         }
 
-        double cartPrice = cart.getTotalPrice() - (cartItem.getProductPrice() * cartItem.getQuantity());
+        long cartPriceCents = cart.getTotalPriceCents() - (cartItem.getProductPriceCents() * cartItem.getQuantity());
 
-        cartItem.setProductPrice(product.getSpecialPrice());
+        cartItem.setProductPriceCents(product.getSpecialPriceCents());
 
-        cart.setTotalPrice(cartPrice + (cartItem.getProductPrice() * cartItem.getQuantity()));
+        cart.setTotalPriceCents(cartPriceCents + (cartItem.getProductPriceCents() * cartItem.getQuantity()));
 
         cartItemRepository.save(cartItem);
     }
+
+    @Override
+    public void flushPendingChanges(String emailId) {
+        if (writeBehindCartStore != null)
+            writeBehindCartStore.flushAndEvict(emailId);
+    }
 }
@@ -1,5 +1,10 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.cache.CatalogVersion;
+import com.ecommerce.project.cache.CategoryCache;
+import com.ecommerce.project.cache.ProductFacetIndex;
+import com.ecommerce.project.cache.ProductNameIndex;
+import com.ecommerce.project.configs.AppConstants;
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
 import com.ecommerce.project.model.Category;
@@ -8,12 +13,9 @@ import com.ecommerce.project.payload.CategoryResponse;
 import com.ecommerce.project.repositories.CategoryRepository;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -25,31 +27,51 @@ public class CategoryServiceImpl implements CategoryService{
     @Autowired
     private ModelMapper modelMapper;
 
-    @Override
-    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    @Autowired
+    private CategoryCache categoryCache;
 
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+    @Autowired
+    private ProductNameIndex productNameIndex;
 
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Category> categoryPage = categoryRepository.findAll(pageDetails);
+    @Autowired
+    private CatalogVersion catalogVersion;
 
-        List<Category> categories = categoryPage.getContent();
-        if (categories.isEmpty())
-            throw new APIException("No categories to show!");
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
 
-        List<CategoryDTO> categoryDTOS = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+    @Override
+    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        if (pageNumber < 0 || pageSize < 1 || pageSize > AppConstants.MAX_PAGE_SIZE)
+            throw new APIException("Invalid page request!");
+
+        Comparator<CategoryDTO> comparator = switch (sortBy) {
+            case "categoryId" -> Comparator.comparing(CategoryDTO::getCategoryId);
+            case "categoryName" -> Comparator.comparing(CategoryDTO::getCategoryName, String.CASE_INSENSITIVE_ORDER);
+            case "productCount" -> Comparator.comparingLong(CategoryDTO::getProductCount);
+            default -> throw new APIException("Categories cannot be sorted by: " + sortBy);
+        };
+        if (!sortOrder.equalsIgnoreCase("asc"))
+            comparator = comparator.reversed();
+
+        List<CategoryDTO> allCategories = categoryCache.getCategories().stream()
+                .sorted(comparator)
                 .toList();
 
+        int fromIndex = (int) Math.min((long) pageNumber * pageSize, allCategories.size());
+        int toIndex = Math.min(fromIndex + pageSize, allCategories.size());
+        List<CategoryDTO> categoryDTOS = allCategories.subList(fromIndex, toIndex);
+        if (categoryDTOS.isEmpty())
+            throw new APIException("No categories to show!");
+
+        int totalPages = (allCategories.size() + pageSize - 1) / pageSize;
+
         CategoryResponse categoryResponse = new CategoryResponse();
         categoryResponse.setContent(categoryDTOS);
-        categoryResponse.setPageNumber(categoryPage.getNumber());
-        categoryResponse.setPageSize(categoryPage.getSize());
-        categoryResponse.setTotalElements(categoryPage.getTotalElements());
-        categoryResponse.setTotalPages(categoryPage.getTotalPages());
-        categoryResponse.setLastPage(categoryPage.isLast());
+        categoryResponse.setPageNumber(pageNumber);
+        categoryResponse.setPageSize(pageSize);
+        categoryResponse.setTotalElements((long) allCategories.size());
+        categoryResponse.setTotalPages(totalPages);
+        categoryResponse.setLastPage(pageNumber >= totalPages - 1);
         return categoryResponse;
     }
 
@@ -61,6 +83,8 @@ public class CategoryServiceImpl implements CategoryService{
             throw new APIException("Category with the name: " + category.getCategoryName() + " already exists!");
 
         Category savedCategory = categoryRepository.save(category);
+        categoryCache.refresh();
+        catalogVersion.bump();
         return modelMapper.map(savedCategory, CategoryDTO.class);
     }
 
@@ -70,6 +94,10 @@ public class CategoryServiceImpl implements CategoryService{
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
 
         categoryRepository.delete(category);
+        productNameIndex.releaseCategory(categoryId);
+        productFacetIndex.removeCategory(categoryId);
+        categoryCache.refresh();
+        catalogVersion.bump();
         return modelMapper.map(category, CategoryDTO.class);
     }
 
@@ -81,6 +109,8 @@ public class CategoryServiceImpl implements CategoryService{
         Category category = modelMapper.map(categoryDTO, Category.class);
         category.setCategoryId(categoryId);
         savedCategory = categoryRepository.save(category);
+        categoryCache.refresh();
+        catalogVersion.bump();
         return modelMapper.map(savedCategory, CategoryDTO.class);
     }
 }
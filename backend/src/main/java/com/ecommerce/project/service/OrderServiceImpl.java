@@ -1,5 +1,6 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.events.OrderPlacedEvent;
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
 import com.ecommerce.project.model.*;
@@ -9,14 +10,20 @@ import com.ecommerce.project.payload.OrderItemDTO;
 import com.ecommerce.project.payload.OrderRequestDTO;
 import com.ecommerce.project.repositories.*;
 import com.ecommerce.project.util.AuthUtil;
-import jakarta.transaction.Transactional;
+import com.ecommerce.project.util.OptimisticLockRetry;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderServiceImpl implements OrderService{
@@ -42,28 +49,83 @@ public class OrderServiceImpl implements OrderService{
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
     @Autowired
     private CartService cartService;
 
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
     @Override
-    @Transactional
     public OrderDTO placeOrder(String paymentMethod, OrderRequestDTO orderRequestDTO) {
-        String userEmail = authUtil.loggedInEmail();
-        Cart cart = cartRepository.findCartByEmail(userEmail);
+        User user = authUtil.loggedInUser();
+        cartService.flushPendingChanges(user.getEmail());
+        return optimisticLockRetry.execute("placeOrder",
+                () -> loadCheckout(user, orderRequestDTO.getAddressId()),
+                checkout -> createOrder(user.getEmail(), checkout, paymentMethod, orderRequestDTO));
+    }
+
+    private Checkout loadCheckout(User user, Long addressId) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<Object> completionService = new ExecutorCompletionService<>(executor);
+            Future<Object> addressTask = completionService.submit(() -> addressRepository.findByIdAndUserId(addressId, user.getUserId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId)));
+            Future<Object> cartTask = completionService.submit(() -> loadValidatedCart(user.getEmail()));
+
+            try {
+                for (int i = 0; i < 2; i++)
+                    completionService.take().get();
+            } catch (ExecutionException e) {
+                addressTask.cancel(true);
+                cartTask.cancel(true);
+                if (e.getCause() instanceof RuntimeException runtimeException)
+                    throw runtimeException;
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                addressTask.cancel(true);
+                cartTask.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while validating checkout", e);
+            }
+
+            return new Checkout((Address) addressTask.resultNow(), (Cart) cartTask.resultNow());
+        }
+    }
+
+    private Cart loadValidatedCart(String email) {
+        Cart cart = cartRepository.findCartByEmail(email);
         if (cart == null) {
-            throw new ResourceNotFoundException("Cart", "email", userEmail);
+            throw new ResourceNotFoundException("Cart", "email", email);
         }
+        if (cart.getCartItems().isEmpty()) {
+            throw new APIException("Cart is empty!");
+        }
+        for (CartItem cartItem : cart.getCartItems()) {
+            Product product = cartItem.getProduct();
+            if (product.getQuantity() < cartItem.getQuantity()) {
+                throw new APIException(("Please make an order of the " + product.getProductName()
+                        + " less than or equal to " + product.getQuantity() + "."));
+            }
+        }
+        return cart;
+    }
 
-        Address address = addressRepository.findById(orderRequestDTO.getAddressId())
-                .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", orderRequestDTO.getAddressId()));
+    private OrderDTO createOrder(String userEmail, Checkout checkout, String paymentMethod, OrderRequestDTO orderRequestDTO) {
+        Cart cart = checkout.cart();
+        Address address = checkout.address();
 
         Order order = new Order();
         order.setEmail(userEmail);
         order.setOrderDate(LocalDate.now());
-        order.setTotalAmount(cart.getTotalPrice());
+        order.setTotalAmountCents(cart.getTotalPriceCents());
         order.setOrderStatus(OrderStatus.ORDER_ACCEPTED);
         order.setAddress(address);
 
@@ -75,31 +137,41 @@ public class OrderServiceImpl implements OrderService{
         order.setPayment(payment);
 
         Order savedOrder = orderRepository.save(order);
-        List<CartItem> cartItems = cart.getCartItems();
-        if(cartItems.isEmpty()) {
-            throw new APIException("Cart is empty!");
-        }
+
+        Map<Long, Product> products = productRepository.findAllById(cart.getCartItems().stream()
+                        .map(item -> item.getProduct().getProductId())
+                        .toList()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
 
         List<OrderItem> orderItems = new ArrayList<>();
-        for (CartItem cartItem : cartItems) {
+        for (CartItem cartItem : cart.getCartItems()) {
+            Product product = products.get(cartItem.getProduct().getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "productId", cartItem.getProduct().getProductId());
+            }
+            if (product.getQuantity() < cartItem.getQuantity()) {
+                throw new APIException(("Please make an order of the " + product.getProductName()
+                        + " less than or equal to " + product.getQuantity() + "."));
+            }
+            product.setQuantity(product.getQuantity() - cartItem.getQuantity());
+
             OrderItem orderItem = new OrderItem();
-            orderItem.setProduct(cartItem.getProduct());
+            orderItem.setProduct(product);
             orderItem.setQuantity(cartItem.getQuantity());
             orderItem.setDiscount(cartItem.getDiscount());
-            orderItem.setOrderedProductPrice(cartItem.getProductPrice());
+            orderItem.setOrderedProductPriceCents(cartItem.getProductPriceCents());
             orderItem.setOrder(savedOrder);
             orderItems.add(orderItem);
         }
 
         orderItems = orderItemRepository.saveAll(orderItems);
 
-        cart.getCartItems().forEach(item -> {
-            int quantity = item.getQuantity();
-            Product product = item.getProduct();
-            product.setQuantity(product.getQuantity() - quantity);
-            productRepository.save(product);
-            cartService.deleteProductFromCart(cart.getCartId(), item.getProduct().getProductId());
-        });
+        cartItemRepository.deleteAllByCartId(cart.getCartId());
+        if (cartRepository.clearCart(cart.getCartId(), cart.getVersion()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Cart.class, cart.getCartId());
+        }
+
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder, orderItems));
 
         OrderDTO orderDTO = modelMapper.map(savedOrder, OrderDTO.class);
         orderItems.forEach(item ->
@@ -110,4 +182,7 @@ public class OrderServiceImpl implements OrderService{
 
         return orderDTO;
     }
+
+    private record Checkout(Address address, Cart cart) {
+    }
 }
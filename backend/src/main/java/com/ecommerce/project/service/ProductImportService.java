@@ -0,0 +1,15 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.ProductImportJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+public interface ProductImportService {
+    ProductImportJobDTO startImport(MultipartFile file) throws IOException;
+
+    ProductImportJobDTO getImportJob(String jobId);
+
+    StreamingResponseBody exportProducts(String format);
+}
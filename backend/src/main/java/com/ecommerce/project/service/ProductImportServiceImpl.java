@@ -0,0 +1,348 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.cache.CatalogVersion;
+import com.ecommerce.project.cache.CategoryCache;
+import com.ecommerce.project.cache.ListingCountCache;
+import com.ecommerce.project.cache.ProductFacetIndex;
+import com.ecommerce.project.cache.ProductNameIndex;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductExportRow;
+import com.ecommerce.project.payload.ProductImportJobDTO;
+import com.ecommerce.project.payload.ProductImportRow;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.util.CsvUtils;
+import com.ecommerce.project.util.MoneyUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TRACKED_JOBS = 100;
+    private static final String CSV_HEADER = "productId,categoryId,productName,description,quantity,price,discount,specialPrice,image";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("readOnlyTransactionTemplate")
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private ListingCountCache listingCountCache;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${project.import.batchSize}")
+    private int batchSize;
+
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor();
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public ProductImportJobDTO startImport(MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        boolean csv;
+        if (fileName.endsWith(".csv"))
+            csv = true;
+        else if (fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl"))
+            csv = false;
+        else
+            throw new APIException("Only .csv and .ndjson product files can be imported!");
+
+        Path upload = Files.createTempFile("product-import-", fileName.substring(fileName.lastIndexOf('.')));
+        file.transferTo(upload);
+
+        if (jobs.size() >= MAX_TRACKED_JOBS)
+            jobs.values().removeIf(ImportJob::isFinished);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.jobId, job);
+        importExecutor.submit(() -> runImport(job, upload, csv));
+        return job.toDTO();
+    }
+
+    @Override
+    public ProductImportJobDTO getImportJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null)
+            throw new ResourceNotFoundException("Import job", "jobId", jobId);
+        return job.toDTO();
+    }
+
+    @Override
+    public StreamingResponseBody exportProducts(String format) {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson"))
+            throw new APIException("Products can only be exported as csv or ndjson!");
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ProductExportRow> rows = productRepository.streamExportRows()) {
+                    rows.forEach(row -> {
+                        try {
+                            writer.write(csv ? toCsv(row) : objectMapper.writeValueAsString(row));
+                            writer.write('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+            writer.flush();
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    private void runImport(ImportJob job, Path upload, boolean csv) {
+        job.status = "RUNNING";
+        Map<Long, Category> categories = new HashMap<>();
+        List<Product> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank())
+                    continue;
+
+                ProductImportRow row;
+                try {
+                    if (csv) {
+                        while (!CsvUtils.isCompleteRecord(line)) {
+                            String next = reader.readLine();
+                            if (next == null)
+                                break;
+                            line = line + '\n' + next;
+                            lineNumber++;
+                        }
+                        if (header == null) {
+                            header = CsvUtils.parseLine(line);
+                            continue;
+                        }
+                        row = parseCsvRow(header, CsvUtils.parseLine(line));
+                    } else {
+                        row = objectMapper.readValue(line, ProductImportRow.class);
+                    }
+                } catch (Exception e) {
+                    job.skip(lineNumber, "unreadable row");
+                    continue;
+                }
+
+                job.processed.incrementAndGet();
+                String error = validate(row);
+                if (error != null) {
+                    job.skip(lineNumber, error);
+                    continue;
+                }
+
+                Category category = categories.computeIfAbsent(row.getCategoryId(),
+                        id -> categoryRepository.existsById(id) ? categoryRepository.getReferenceById(id) : null);
+                if (category == null) {
+                    job.skip(lineNumber, "category " + row.getCategoryId() + " not found");
+                    continue;
+                }
+
+                if (!productNameIndex.reserve(row.getCategoryId(), row.getProductName())) {
+                    job.skip(lineNumber, "product " + row.getProductName() + " already exists");
+                    continue;
+                }
+
+                batch.add(toProduct(row, category));
+                if (batch.size() >= batchSize)
+                    persist(job, batch);
+            }
+            persist(job, batch);
+            job.status = "COMPLETED";
+        } catch (Exception e) {
+            logger.error("Product import {} failed: {}", job.jobId, e.getMessage());
+            batch.forEach(product ->
+                    productNameIndex.release(product.getCategory().getCategoryId(), product.getProductName()));
+            job.status = "FAILED";
+            job.error("import aborted: " + e.getMessage());
+        } finally {
+            listingCountCache.invalidateAll();
+            catalogVersion.bump();
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                logger.warn("Could not delete import upload {}", upload);
+            }
+        }
+    }
+
+    private void persist(ImportJob job, List<Product> batch) {
+        if (batch.isEmpty())
+            return;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.saveAll(batch);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        batch.forEach(productFacetIndex::index);
+        batch.stream()
+                .collect(Collectors.groupingBy(product -> product.getCategory().getCategoryId(), Collectors.counting()))
+                .forEach(categoryCache::adjustProductCount);
+        job.imported.addAndGet(batch.size());
+        batch.clear();
+    }
+
+    private ProductImportRow parseCsvRow(List<String> header, List<String> fields) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            values.put(header.get(i).trim(), fields.get(i).trim());
+        }
+
+        ProductImportRow row = new ProductImportRow();
+        row.setCategoryId(parseOrNull(values.get("categoryId"), Long::valueOf));
+        row.setProductName(values.get("productName"));
+        row.setDescription(values.get("description"));
+        row.setQuantity(parseOrNull(values.get("quantity"), Integer::valueOf));
+        row.setPrice(parseOrNull(values.get("price"), Double::valueOf));
+        row.setDiscount(parseOrNull(values.get("discount"), Double::valueOf));
+        return row;
+    }
+
+    private <T> T parseOrNull(String value, Function<String, T> parser) {
+        return value == null || value.isEmpty() ? null : parser.apply(value);
+    }
+
+    private String validate(ProductImportRow row) {
+        if (row.getCategoryId() == null)
+            return "categoryId is required";
+        if (row.getProductName() == null || row.getProductName().trim().length() < 3)
+            return "productName must contain atleast 3 characters";
+        if (row.getDescription() == null || row.getDescription().trim().length() < 6)
+            return "description must contain atleast 6 characters";
+        if (row.getQuantity() == null || row.getQuantity() < 0)
+            return "quantity must not be negative";
+        if (row.getPrice() == null || row.getPrice() < 0)
+            return "price must not be negative";
+        if (row.getDiscount() != null && (row.getDiscount() < 0 || row.getDiscount() > 100))
+            return "discount must be between 0 and 100";
+        return null;
+    }
+
+    private Product toProduct(ProductImportRow row, Category category) {
+        double discount = row.getDiscount() != null ? row.getDiscount() : 0;
+        Product product = new Product();
+        product.setProductName(row.getProductName());
+        product.setDescription(row.getDescription());
+        product.setQuantity(row.getQuantity());
+        product.setPriceCents(MoneyUtils.toCents(row.getPrice()));
+        product.setDiscount(discount);
+        product.setSpecialPriceCents(MoneyUtils.applyDiscount(product.getPriceCents(), discount));
+        product.setImage("default.png");
+        product.setCategory(category);
+        return product;
+    }
+
+    private String toCsv(ProductExportRow row) {
+        return String.join(",",
+                CsvUtils.escape(row.getProductId()),
+                CsvUtils.escape(row.getCategoryId()),
+                CsvUtils.escape(row.getProductName()),
+                CsvUtils.escape(row.getDescription()),
+                CsvUtils.escape(row.getQuantity()),
+                CsvUtils.escape(row.getPrice()),
+                CsvUtils.escape(row.getDiscount()),
+                CsvUtils.escape(row.getSpecialPrice()),
+                CsvUtils.escape(row.getImage()));
+    }
+
+    private static class ImportJob {
+        final String jobId;
+        volatile String status = "QUEUED";
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ImportJob(String jobId) {
+            this.jobId = jobId;
+        }
+
+        void skip(long lineNumber, String reason) {
+            skipped.incrementAndGet();
+            error("line " + lineNumber + ": " + reason);
+        }
+
+        void error(String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS)
+                errors.add(message);
+        }
+
+        boolean isFinished() {
+            return status.equals("COMPLETED") || status.equals("FAILED");
+        }
+
+        ProductImportJobDTO toDTO() {
+            return new ProductImportJobDTO(jobId, status, processed.get(), imported.get(), skipped.get(),
+                    List.copyOf(errors));
+        }
+    }
+}
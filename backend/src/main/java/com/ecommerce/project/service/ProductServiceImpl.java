@@ -1,29 +1,51 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.cache.CatalogVersion;
+import com.ecommerce.project.cache.CategoryCache;
+import com.ecommerce.project.cache.ListingCountCache;
+import com.ecommerce.project.cache.ProductFacetIndex;
+import com.ecommerce.project.cache.ProductNameIndex;
+import com.ecommerce.project.configs.AppConstants;
 import com.ecommerce.project.exceptions.APIException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
 import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
-import com.ecommerce.project.payload.CartDTO;
-import com.ecommerce.project.payload.ProductDTO;
-import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.*;
 import com.ecommerce.project.repositories.CartRepository;
 import com.ecommerce.project.repositories.CategoryRepository;
 import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.util.MoneyUtils;
+import com.ecommerce.project.util.OptimisticLockRetry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService{
@@ -46,6 +68,31 @@ public class ProductServiceImpl implements ProductService{
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private ListingCountCache listingCountCache;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    @Qualifier("readOnlyTransactionTemplate")
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Value("${project.image}")
     private String path;
 
@@ -54,104 +101,144 @@ public class ProductServiceImpl implements ProductService{
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        boolean isProductNotPresent = true;
-        List<Product> products = category.getProducts();
-        for (Product product : products) {
-            if (product.getProductName().equals(productDTO.getProductName())) {
-                isProductNotPresent = false;
-                break;
-            }
-        }
-
-        if (!isProductNotPresent)
+        if (!productNameIndex.reserve(categoryId, productDTO.getProductName()))
             throw new APIException("Product with the name: " + productDTO.getProductName() + " already exists!");
 
         Product product = modelMapper.map(productDTO, Product.class);
         product.setImage("default.png");
         product.setCategory(category);
-        product.setSpecialPrice(product.getPrice() * (1 - product.getDiscount() * 0.01));
-        Product savedProduct = productRepository.save(product);
+        product.setSpecialPriceCents(MoneyUtils.applyDiscount(product.getPriceCents(), product.getDiscount()));
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.save(product);
+        } catch (RuntimeException e) {
+            productNameIndex.release(categoryId, productDTO.getProductName());
+            if (e instanceof DataIntegrityViolationException)
+                throw new APIException("Product with the name: " + productDTO.getProductName() + " already exists!");
+            throw e;
+        }
+        productFacetIndex.index(savedProduct);
+        categoryCache.adjustProductCount(categoryId, 1);
+        listingCountCache.invalidateAll();
+        catalogVersion.bump();
         return modelMapper.map(savedProduct, ProductDTO.class);
     }
 
     @Override
-    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository.findAll(pageDetails);
+    @Transactional(readOnly = true)
+    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, Boolean withTotal) {
+        Pageable pageDetails = pageRequest(pageNumber, pageSize, sortBy, sortOrder);
+        Slice<Product> productSlice = productRepository.findAllBy(pageDetails);
+        return buildProductResponse(productSlice, withTotal, "all", productRepository::count);
+    }
 
-        List<Product> products = productPage.getContent();
-        if (products.isEmpty())
-            throw new APIException("No products to show!");
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, Boolean withTotal) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
+        Pageable pageDetails = pageRequest(pageNumber, pageSize, sortBy, sortOrder);
+        Slice<Product> productSlice = productRepository.findByCategory(category, pageDetails);
+        return buildProductResponse(productSlice, withTotal, "category:" + categoryId,
+                () -> productRepository.countByCategory(category));
+    }
 
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(productPage.getNumber());
-        productResponse.setPageSize(productPage.getSize());
-        productResponse.setTotalElements(productPage.getTotalElements());
-        productResponse.setTotalPages(productPage.getTotalPages());
-        productResponse.setLastPage(productPage.isLast());
-        return productResponse;
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, Boolean withTotal) {
+        Pageable pageDetails = pageRequest(pageNumber, pageSize, sortBy, sortOrder);
+        Slice<Product> productSlice = productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%', pageDetails);
+        return buildProductResponse(productSlice, withTotal, "keyword:" + keyword.toLowerCase(),
+                () -> productRepository.countByProductNameLikeIgnoreCase('%' + keyword + '%'));
     }
 
     @Override
-    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+    public StreamingResponseBody streamProducts(Long categoryId) {
+        if (categoryId != null && !categoryRepository.existsById(categoryId))
+            throw new ResourceNotFoundException("Category", "categoryId", categoryId);
+
+        return outputStream -> readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProductExportRow> rows = categoryId != null
+                    ? productRepository.streamExportRowsByCategory(categoryId)
+                    : productRepository.streamExportRows();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                ObjectWriter rowWriter = objectMapper.writerFor(ProductExportRow.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                Iterator<ProductExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    rowWriter.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Pageable pageRequest(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        if (pageNumber < 0 || pageSize < 1 || pageSize > AppConstants.MAX_PAGE_SIZE)
+            throw new APIException("Page size must be between 1 and " + AppConstants.MAX_PAGE_SIZE + "!");
 
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
+        return PageRequest.of(pageNumber, pageSize, sortByAndOrder);
+    }
 
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository.findByCategoryOrderByPriceAsc(category, pageDetails);
-        List<Product> products = productPage.getContent();
+    private ProductResponse buildProductResponse(Slice<Product> productSlice, Boolean withTotal,
+                                                 String countKey, Supplier<Long> counter) {
+        List<Product> products = productSlice.getContent();
         if (products.isEmpty())
             throw new APIException("No products to show!");
 
         List<ProductDTO> productDTOS = products.stream()
                 .map(product -> modelMapper.map(product, ProductDTO.class))
                 .toList();
+
         ProductResponse productResponse = new ProductResponse();
         productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(productPage.getNumber());
-        productResponse.setPageSize(productPage.getSize());
-        productResponse.setTotalElements(productPage.getTotalElements());
-        productResponse.setTotalPages(productPage.getTotalPages());
-        productResponse.setLastPage(productPage.isLast());
+        productResponse.setPageNumber(productSlice.getNumber());
+        productResponse.setPageSize(productSlice.getSize());
+        productResponse.setLastPage(productSlice.isLast());
+        if (withTotal) {
+            long totalElements = listingCountCache.getCount(countKey, counter);
+            productResponse.setTotalElements(totalElements);
+            productResponse.setTotalPages((int) ((totalElements + productSlice.getSize() - 1) / productSlice.getSize()));
+        }
         return productResponse;
     }
 
     @Override
-    public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+    public ProductFilterResponse filterProducts(ProductFilterDTO filter, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        if (pageNumber < 0 || pageSize < 1 || pageSize > AppConstants.MAX_PAGE_SIZE)
+            throw new APIException("Invalid page request!");
 
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%', pageDetails);
-        List<Product> products = productPage.getContent();
-        if (products.isEmpty())
-            throw new APIException("No products to show!");
+        ProductFacetResult facetResult = productFacetIndex.filter(filter, pageNumber, pageSize, sortBy, sortOrder);
 
-        List<ProductDTO> productDTOS = products.stream()
+        Map<Long, Product> productsById = productRepository.findWithDescriptionByProductIdIn(facetResult.getProductIds()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        List<ProductDTO> productDTOS = facetResult.getProductIds().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .map(product -> modelMapper.map(product, ProductDTO.class))
                 .toList();
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(productPage.getNumber());
-        productResponse.setPageSize(productPage.getSize());
-        productResponse.setTotalElements(productPage.getTotalElements());
-        productResponse.setTotalPages(productPage.getTotalPages());
-        productResponse.setLastPage(productPage.isLast());
-        return productResponse;
+
+        int totalPages = (int) ((facetResult.getTotalElements() + pageSize - 1) / pageSize);
+
+        ProductFilterResponse filterResponse = new ProductFilterResponse();
+        filterResponse.setContent(productDTOS);
+        filterResponse.setPageNumber(pageNumber);
+        filterResponse.setPageSize(pageSize);
+        filterResponse.setTotalElements(facetResult.getTotalElements());
+        filterResponse.setTotalPages(totalPages);
+        filterResponse.setLastPage(pageNumber >= totalPages - 1);
+        filterResponse.setCategoryCounts(facetResult.getCategoryCounts());
+        filterResponse.setPriceBandCounts(facetResult.getPriceBandCounts());
+        filterResponse.setDiscountBandCounts(facetResult.getDiscountBandCounts());
+        filterResponse.setInStockCount(facetResult.getInStockCount());
+        return filterResponse;
     }
 
     @Override
@@ -159,35 +246,58 @@ public class ProductServiceImpl implements ProductService{
         Product existingProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
+        Long categoryId = existingProduct.getCategory().getCategoryId();
+        String oldProductName = existingProduct.getProductName();
+        boolean renamed = !oldProductName.equals(productDTO.getProductName());
+        if (renamed && !productNameIndex.reserve(categoryId, productDTO.getProductName()))
+            throw new APIException("Product with the name: " + productDTO.getProductName() + " already exists!");
+
+        Product savedProduct;
+        try {
+            savedProduct = optimisticLockRetry.execute("updateProduct", () -> applyProductUpdate(productId, productDTO));
+        } catch (RuntimeException e) {
+            if (renamed)
+                productNameIndex.release(categoryId, productDTO.getProductName());
+            if (e instanceof DataIntegrityViolationException)
+                throw new APIException("Product with the name: " + productDTO.getProductName() + " already exists!");
+            throw e;
+        }
+        if (renamed)
+            productNameIndex.release(categoryId, oldProductName);
+        productFacetIndex.index(savedProduct);
+        catalogVersion.bump();
+
+        return modelMapper.map(savedProduct, ProductDTO.class);
+    }
+
+    private Product applyProductUpdate(Long productId, ProductDTO productDTO) {
+        Product existingProduct = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+
         existingProduct.setProductName(productDTO.getProductName());
         existingProduct.setDescription(productDTO.getDescription());
         existingProduct.setQuantity(productDTO.getQuantity());
-        existingProduct.setPrice(productDTO.getPrice());
+        existingProduct.setPriceCents(MoneyUtils.toCents(productDTO.getPrice()));
         existingProduct.setDiscount(productDTO.getDiscount());
-        existingProduct.setSpecialPrice(productDTO.getPrice() * (1 - productDTO.getDiscount() * 0.01));
-
-        Product savedProduct = productRepository.save(existingProduct);
+        existingProduct.setSpecialPriceCents(MoneyUtils.applyDiscount(existingProduct.getPriceCents(), productDTO.getDiscount()));
+        Product savedProduct = productRepository.saveAndFlush(existingProduct);
 
         List<Cart> carts = cartRepository.findCartsByProductId(productId);
-        List<CartDTO> cartDTOs = carts.stream().map(cart -> {
-            CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-            List<ProductDTO> products = cart.getCartItems().stream()
-                    .map(p -> modelMapper.map(p.getProduct(), ProductDTO.class))
-                    .collect(Collectors.toList());
-            cartDTO.setProducts(products);
-            return cartDTO;
-        }).collect(Collectors.toList());
-
-        cartDTOs.forEach(cart -> cartService.updateProductInCarts(cart.getCartId(), productId));
+        carts.forEach(cart -> cartService.updateProductInCarts(cart.getCartId(), productId));
 
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        return savedProduct;
     }
 
     @Override
     public ProductDTO deleteProduct(Long productId) {
-        Product existingProduct = productRepository.findById(productId)
+        Product existingProduct = productRepository.findWithDescriptionByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
         productRepository.delete(existingProduct);
+        productNameIndex.release(existingProduct.getCategory().getCategoryId(), existingProduct.getProductName());
+        productFacetIndex.remove(productId);
+        categoryCache.adjustProductCount(existingProduct.getCategory().getCategoryId(), -1);
+        listingCountCache.invalidateAll();
+        catalogVersion.bump();
         return modelMapper.map(existingProduct, ProductDTO.class);
     }
 
@@ -197,8 +307,13 @@ public class ProductServiceImpl implements ProductService{
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
         String fileName = fileService.uploadImage(path, image);
-        existingProduct.setImage(fileName);
-        Product updatedProduct = productRepository.save(existingProduct);
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        ProductDTO updatedProduct = optimisticLockRetry.execute("updateProductImage", () -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+            product.setImage(fileName);
+            return modelMapper.map(productRepository.save(product), ProductDTO.class);
+        });
+        catalogVersion.bump();
+        return updatedProduct;
     }
 }
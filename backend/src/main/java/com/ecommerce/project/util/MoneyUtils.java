@@ -0,0 +1,16 @@
+package com.ecommerce.project.util;
+
+public class MoneyUtils {
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    public static long applyDiscount(long cents, double discount) {
+        return Math.round(cents * (100 - discount) / 100);
+    }
+}
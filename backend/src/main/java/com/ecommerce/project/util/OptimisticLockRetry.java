@@ -0,0 +1,61 @@
+package com.ecommerce.project.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class OptimisticLockRetry {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${project.optimisticLock.maxAttempts}")
+    private int maxAttempts;
+
+    @Value("${project.optimisticLock.backoffMs}")
+    private long backoffMs;
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        return execute(operation, () -> null, prepared -> action.get());
+    }
+
+    public <P, T> T execute(String operation, Supplier<P> prepare, Function<P, T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            return action.apply(prepare.get());
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                P prepared = prepare.get();
+                return transactionTemplate.execute(status -> action.apply(prepared));
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("optimistic.lock.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("optimistic.lock.exhausted", "operation", operation).increment();
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a conflicting update", e);
+        }
+    }
+}
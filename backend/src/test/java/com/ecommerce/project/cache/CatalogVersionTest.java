@@ -0,0 +1,62 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.repositories.CatalogRevisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogVersionTest {
+
+    private static final String JSON = "application/json";
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final CatalogRevisionRepository catalogRevisionRepository = Mockito.mock(CatalogRevisionRepository.class);
+    private final CategoryCache categoryCache = Mockito.mock(CategoryCache.class);
+    private final ListingCountCache listingCountCache = Mockito.mock(ListingCountCache.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogVersion, "catalogRevisionRepository", catalogRevisionRepository);
+        ReflectionTestUtils.setField(catalogVersion, "categoryCache", categoryCache);
+        ReflectionTestUtils.setField(catalogVersion, "listingCountCache", listingCountCache);
+        ReflectionTestUtils.setField(catalogVersion, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+        when(catalogRevisionRepository.findRevision()).thenReturn(Optional.of(41L));
+        catalogVersion.load();
+    }
+
+    @Test
+    void localWritesBumpTheSharedRevision() {
+        when(catalogRevisionRepository.findRevision()).thenReturn(Optional.of(42L));
+
+        catalogVersion.bump();
+
+        verify(catalogRevisionRepository).increment();
+        assertEquals("\"42-json\"", catalogVersion.eTag(JSON));
+        verify(categoryCache, never()).load();
+    }
+
+    @Test
+    void writesOnOtherNodesReloadCachesBeforeTheTagMoves() {
+        assertEquals("\"41-json\"", catalogVersion.eTag(JSON));
+
+        when(catalogRevisionRepository.findRevision()).thenReturn(Optional.of(43L));
+        catalogVersion.syncFromDatabase();
+
+        assertEquals("\"43-json\"", catalogVersion.eTag(JSON));
+        assertEquals("\"43-cbor\"", catalogVersion.eTag("application/cbor"));
+        verify(categoryCache).load();
+        verify(listingCountCache).invalidateAll();
+
+        catalogVersion.syncFromDatabase();
+        verify(categoryCache).load();
+    }
+}
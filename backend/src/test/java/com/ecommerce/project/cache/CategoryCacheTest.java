@@ -0,0 +1,63 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.configs.AppConfig;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.repositories.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryCacheTest {
+
+    private final CategoryCache categoryCache = new CategoryCache();
+    private final CategoryRepository categoryRepository = Mockito.mock(CategoryRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(categoryCache, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(categoryCache, "modelMapper", new AppConfig().modelMapper());
+        when(categoryRepository.countProductsByCategory()).thenReturn(List.<Object[]>of(new Object[]{1L, 4L}));
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                new Category(1L, "Books", null), new Category(2L, "Games", null)));
+        categoryCache.load();
+    }
+
+    @Test
+    void productWritesAdjustCountsWithoutRecounting() {
+        categoryCache.adjustProductCount(1L, 1);
+        categoryCache.adjustProductCount(2L, 3);
+        categoryCache.adjustProductCount(1L, -2);
+
+        assertEquals(Map.of(1L, 3L, 2L, 3L), productCounts());
+        verify(categoryRepository, times(1)).countProductsByCategory();
+    }
+
+    @Test
+    void refreshKeepsCountsForExistingCategories() {
+        categoryCache.adjustProductCount(2L, 2);
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                new Category(2L, "Board Games", null), new Category(3L, "Music", null)));
+
+        categoryCache.refresh();
+
+        assertEquals(Map.of(2L, 2L, 3L, 0L), productCounts());
+        assertEquals("Board Games", categoryCache.getCategories().get(0).getCategoryName());
+        verify(categoryRepository, times(1)).countProductsByCategory();
+    }
+
+    private Map<Long, Long> productCounts() {
+        return categoryCache.getCategories().stream()
+                .collect(Collectors.toMap(CategoryDTO::getCategoryId, CategoryDTO::getProductCount));
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductFilterDTO;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductFacetIndexTest {
+
+    private static final int PRODUCTS = 1_000;
+
+    private final ProductFacetIndex index = new ProductFacetIndex();
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "productRepository", Mockito.mock(ProductRepository.class));
+        ReflectionTestUtils.setField(index, "priceBoundaries", new double[]{0, 25, 50, 100});
+        ReflectionTestUtils.setField(index, "discountBoundaries", new double[]{0, 10, 25});
+        index.load();
+
+        Category category = new Category();
+        category.setCategoryId(1L);
+        Random random = new Random(42);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductId((long) (PRODUCTS - i));
+            product.setProductName("Product " + random.nextInt(100));
+            product.setCategory(category);
+            product.setPriceCents(random.nextInt(10_000));
+            product.setSpecialPriceCents(product.getPriceCents() / 2);
+            product.setDiscount(random.nextInt(50));
+            product.setQuantity(random.nextInt(5));
+            index.index(product);
+            products.add(product);
+        }
+    }
+
+    @Test
+    void pagesMatchAFullSort() {
+        Comparator<Product> byPrice = Comparator.comparingLong(Product::getPriceCents)
+                .thenComparingLong(Product::getProductId);
+        assertPages("price", "asc", byPrice);
+        assertPages("price", "desc", byPrice.reversed());
+        assertPages("productName", "asc", Comparator.comparing(Product::getProductName, String.CASE_INSENSITIVE_ORDER)
+                .thenComparingLong(Product::getProductId));
+    }
+
+    @Test
+    void priceFacetCountsUsePrice() {
+        var result = index.filter(new ProductFilterDTO(), 0, 10, "productId", "asc");
+
+        assertEquals(PRODUCTS, result.getTotalElements());
+        assertEquals(products.stream().filter(product -> product.getPriceCents() >= 5_000).count(),
+                result.getPriceBandCounts().get("50-100"));
+    }
+
+    private void assertPages(String sortBy, String sortOrder, Comparator<Product> comparator) {
+        List<Long> expected = products.stream().sorted(comparator).map(Product::getProductId).toList();
+        for (int page : new int[]{0, 3, 19, 20}) {
+            List<Long> ids = index.filter(new ProductFilterDTO(), page, 50, sortBy, sortOrder).getProductIds();
+            List<Long> slice = expected.subList(Math.min(page * 50, PRODUCTS), Math.min((page + 1) * 50, PRODUCTS));
+            assertEquals(slice, ids);
+        }
+    }
+}
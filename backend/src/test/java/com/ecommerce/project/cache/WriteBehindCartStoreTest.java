@@ -0,0 +1,114 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.configs.AppConfig;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.util.OptimisticLockRetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindCartStoreTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final WriteBehindCartStore store = new WriteBehindCartStore();
+    private final CartRepository cartRepository = Mockito.mock(CartRepository.class);
+    private final Product product = new Product();
+    private final Cart cart = new Cart();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        OptimisticLockRetry optimisticLockRetry = Mockito.mock(OptimisticLockRetry.class);
+        when(optimisticLockRetry.execute(anyString(), any(Supplier.class))).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+
+        ReflectionTestUtils.setField(store, "cartRepository", cartRepository);
+        ReflectionTestUtils.setField(store, "productRepository", Mockito.mock(ProductRepository.class));
+        ReflectionTestUtils.setField(store, "modelMapper", new AppConfig().modelMapper());
+        ReflectionTestUtils.setField(store, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(store, "optimisticLockRetry", optimisticLockRetry);
+        ReflectionTestUtils.setField(store, "idleEvictMs", 60_000L);
+
+        product.setProductId(1L);
+        product.setProductName("Keyboard");
+        product.setQuantity(10);
+        product.setPriceCents(1_000);
+        product.setSpecialPriceCents(1_000);
+
+        cart.setCartId(5L);
+        cart.setVersion(0L);
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setProductPriceCents(1_000);
+        cart.getCartItems().add(item);
+        cart.setTotalPriceCents(1_000);
+        when(cartRepository.findCartByEmail(EMAIL)).thenReturn(cart);
+    }
+
+    @Test
+    void flushAndEvictWritesOutsideTheStripeLock() {
+        store.updateQuantity(EMAIL, product, 1);
+
+        // The first write changes the cart from another thread; with the stripe lock held
+        // across the write this would block until the timeout.
+        when(cartRepository.findAllById(anyList()))
+                .thenAnswer(invocation -> {
+                    CompletableFuture.runAsync(() -> store.updateQuantity(EMAIL, product, 1))
+                            .get(5, TimeUnit.SECONDS);
+                    return List.of(cart);
+                })
+                .thenReturn(List.of(cart));
+
+        store.flushAndEvict(EMAIL);
+
+        verify(cartRepository, times(2)).findAllById(anyList());
+        assertEquals(3, cart.getCartItems().get(0).getQuantity());
+        assertEquals(3_000, cart.getTotalPriceCents());
+        assertNull(store.getCart(EMAIL));
+    }
+
+    @Test
+    void flushDoesNotRestoreACartChangedSinceItWasLoaded() {
+        store.updateQuantity(EMAIL, product, 1);
+
+        // An order empties the cart with a versioned update while the store still holds it.
+        cart.getCartItems().clear();
+        cart.setTotalPriceCents(0);
+        cart.setVersion(1L);
+        when(cartRepository.findAllById(anyList())).thenReturn(List.of(cart));
+
+        store.flush();
+
+        assertTrue(cart.getCartItems().isEmpty());
+        assertEquals(0, cart.getTotalPriceCents());
+        assertNull(store.getCart(EMAIL));
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.CartLineRow;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CartRepositoryTest {
+
+    private static final int CART_SIZE = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Test
+    void findCartLinesByEmailUsesSingleStatement() {
+        long totalPriceCents = persistCart();
+
+        Statistics statistics = statistics();
+        List<CartLineRow> lines = cartRepository.findCartLinesByEmail("cartuser@example.com");
+
+        assertEquals(CART_SIZE, lines.size());
+        assertEquals(totalPriceCents / 100.0, lines.get(0).getTotalPrice());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithItemsLoadsProductDescriptionsInSingleStatement() {
+        persistCart();
+
+        Statistics statistics = statistics();
+        List<Cart> carts = cartRepository.findAllWithItems();
+        carts.forEach(cart -> cart.getCartItems().forEach(item -> item.getProduct().getDescription()));
+
+        assertEquals(1, carts.size());
+        assertEquals(CART_SIZE, carts.get(0).getCartItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private long persistCart() {
+        User user = entityManager.persist(new User("cartuser", "cartuser@example.com", "password"));
+
+        Category category = new Category();
+        category.setCategoryName("Electronics");
+        entityManager.persist(category);
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        long totalPriceCents = 0;
+        for (int i = 0; i < CART_SIZE; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setQuantity(100);
+            product.setPriceCents(1000 + i);
+            product.setSpecialPriceCents(1000 + i);
+            product.setCategory(category);
+            entityManager.persist(product);
+
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(2);
+            item.setDiscount(0.0);
+            item.setProductPriceCents(product.getSpecialPriceCents());
+            cart.getCartItems().add(item);
+            totalPriceCents += item.getProductPriceCents() * item.getQuantity();
+        }
+        cart.setTotalPriceCents(totalPriceCents);
+        entityManager.persist(cart);
+        entityManager.flush();
+        entityManager.clear();
+        return totalPriceCents;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.configs.AppConfig;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductDetachedMappingTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final ModelMapper modelMapper = new AppConfig().modelMapper();
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setCategoryName("Games");
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setProductName("Board game");
+        product.setDescription("A board game for four players");
+        product.setQuantity(5);
+        product.setPriceCents(2500);
+        product.setSpecialPriceCents(2000);
+        product.setCategory(category);
+        productId = productRepository.save(product).getProductId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void productsLoadedWithDescriptionsMapAfterTheSessionCloses() {
+        Product byId = productRepository.findWithDescriptionByProductId(productId).orElseThrow();
+        List<Product> byIds = productRepository.findWithDescriptionByProductIdIn(List.of(productId));
+        Product listed = productRepository.findAllBy(PageRequest.of(0, 1, Sort.by("productId"))).getContent().get(0);
+
+        for (Product product : List.of(byId, byIds.get(0), listed)) {
+            ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
+            assertEquals("A board game for four players", productDTO.getDescription());
+            assertEquals(20.0, productDTO.getSpecialPrice());
+            product.toString();
+            product.hashCode();
+        }
+    }
+
+    @Test
+    void findByIdLeavesTheDescriptionUnloaded() {
+        Product product = productRepository.findById(productId).orElseThrow();
+
+        product.toString();
+        product.hashCode();
+        assertFalse(Hibernate.isPropertyInitialized(product, "description"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.project.repositories;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductRepositoryTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRepositoryTest.class);
+
+    private static final int PAGE_SIZE = 50;
+    private static final int FLUSH_ROUNDS = 2_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setCategoryName("Books");
+        entityManager.persist(category);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Product product = new Product();
+            product.setProductName("Book " + i);
+            product.setDescription("A long description of book " + i);
+            product.setQuantity(10);
+            product.setPriceCents(1500);
+            product.setSpecialPriceCents(1500);
+            product.setCategory(category);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void lombokMethodsDoNotLoadAssociations() {
+        Product product = productRepository.findAllBy(PageRequest.of(0, 1, Sort.by("productId"))).getContent().get(0);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertFalse(product.toString().contains("category"));
+        assertEquals(product, product);
+        assertEquals(product.hashCode(), product.hashCode());
+
+        assertFalse(Hibernate.isInitialized(product.getProducts()));
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listingPageLoadsInOneStatement() {
+        Slice<Product> page = productRepository.findAllBy(PageRequest.of(0, PAGE_SIZE, Sort.by("productId")));
+        page.forEach(product -> {
+            product.getCategory().getCategoryName();
+            product.getDescription();
+        });
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void flushUpdatesOnlyTheChangedProduct() {
+        List<Product> products = productRepository.findAll();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < FLUSH_ROUNDS; i++)
+            entityManager.flush();
+        logger.info("Clean flush of {} managed products: {} ns", products.size(),
+                (System.nanoTime() - start) / FLUSH_ROUNDS);
+
+        Product product = products.get(0);
+        product.setQuantity(product.getQuantity() - 1);
+        assertTrue(product instanceof SelfDirtinessTracker tracker && tracker.$$_hibernate_hasDirtyAttributes());
+
+        entityManager.flush();
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.project.security.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptStrengthPasswordEncoderTest {
+
+    private final String cost4 = new BCryptStrengthPasswordEncoder(4).encode("password");
+    private final String cost5 = new BCryptStrengthPasswordEncoder(5).encode("password");
+
+    @Test
+    void rehashesWhenTheStoredCostDiffers() {
+        BCryptStrengthPasswordEncoder encoder = new BCryptStrengthPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(cost4));
+        assertFalse(encoder.upgradeEncoding(cost5));
+        assertTrue(new BCryptStrengthPasswordEncoder(4).upgradeEncoding(cost5));
+    }
+
+    @Test
+    void leavesOtherValuesToTheStockEncoder() {
+        BCryptStrengthPasswordEncoder encoder = new BCryptStrengthPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(null));
+        assertFalse(encoder.upgradeEncoding(""));
+        assertThrows(IllegalArgumentException.class, () -> encoder.upgradeEncoding("plaintext"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.configs.AppConstants;
+import com.ecommerce.project.events.OrderPlacedEvent;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.OrderItem;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.ProductSales;
+import com.ecommerce.project.payload.ProductSalesDTO;
+import com.ecommerce.project.repositories.CategorySalesRepository;
+import com.ecommerce.project.repositories.DailySalesRepository;
+import com.ecommerce.project.repositories.ProductSalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceImplTest {
+
+    private final AnalyticsServiceImpl analyticsService = new AnalyticsServiceImpl();
+    private final ProductSalesRepository productSalesRepository = Mockito.mock(ProductSalesRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        ReflectionTestUtils.setField(analyticsService, "productSalesRepository", productSalesRepository);
+        ReflectionTestUtils.setField(analyticsService, "categorySalesRepository", Mockito.mock(CategorySalesRepository.class));
+        ReflectionTestUtils.setField(analyticsService, "dailySalesRepository", Mockito.mock(DailySalesRepository.class));
+        ReflectionTestUtils.setField(analyticsService, "transactionTemplate", transactionTemplate);
+    }
+
+    @Test
+    void failedFlushKeepsRollupsDirty() {
+        recordOrder(7L, 3);
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .doNothing()
+                .when(productSalesRepository).addSales(7L, "Product 7", null, 3L, 3_000L);
+
+        assertThrows(DataAccessResourceFailureException.class, analyticsService::flush);
+        analyticsService.flush();
+
+        verify(productSalesRepository, times(2)).addSales(7L, "Product 7", null, 3L, 3_000L);
+    }
+
+    @Test
+    void flushAddsOnlySalesRecordedSinceTheLastFlush() {
+        recordOrder(7L, 3);
+        analyticsService.flush();
+        recordOrder(7L, 2);
+        analyticsService.flush();
+        analyticsService.flush();
+
+        verify(productSalesRepository).addSales(7L, "Product 7", null, 3L, 3_000L);
+        verify(productSalesRepository).addSales(7L, "Product 7", null, 2L, 2_000L);
+        verify(productSalesRepository, times(2)).addSales(any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void flushPicksUpSalesFlushedByOtherNodes() {
+        recordOrder(7L, 3);
+        // The stored row holds this node's 3 units plus 5 flushed elsewhere.
+        when(productSalesRepository.findAll())
+                .thenReturn(List.of(new ProductSales(7L, "Product 7", null, 8L, 8_000L)));
+        analyticsService.flush();
+        recordOrder(7L, 1);
+
+        ProductSalesDTO topSeller = analyticsService.getTopSellers(1).get(0);
+        assertEquals(9L, topSeller.getUnitsSold());
+        assertEquals(90.0, topSeller.getRevenue());
+    }
+
+    @Test
+    void topSellersFollowLaterSales() {
+        for (long productId = 1; productId <= 150; productId++)
+            recordOrder(productId, (int) productId);
+        // Products that fell out of the tracked top 100 come back once they outsell it.
+        recordOrder(3L, 1_000);
+        recordOrder(20L, 140);
+
+        List<Long> expected = new ArrayList<>(List.of(3L, 20L));
+        for (long productId = 150; expected.size() < AppConstants.MAX_TOP_SELLERS_LIMIT; productId--)
+            expected.add(productId);
+
+        assertEquals(expected.subList(0, 10), productIds(analyticsService.getTopSellers(10)));
+        assertEquals(expected, productIds(analyticsService.getTopSellers(AppConstants.MAX_TOP_SELLERS_LIMIT)));
+        assertEquals(1_003L, analyticsService.getTopSellers(1).get(0).getUnitsSold());
+    }
+
+    @Test
+    void topSellersRejectLimitsBeyondTheTrackedSize() {
+        assertThrows(APIException.class, () -> analyticsService.getTopSellers(AppConstants.MAX_TOP_SELLERS_LIMIT + 1));
+        assertThrows(APIException.class, () -> analyticsService.getTopSellers(0));
+    }
+
+    private List<Long> productIds(List<ProductSalesDTO> topSellers) {
+        return topSellers.stream().map(ProductSalesDTO::getProductId).toList();
+    }
+
+    private void recordOrder(Long productId, int quantity) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setProductName("Product " + productId);
+
+        Order order = new Order();
+        order.setOrderDate(LocalDate.of(2026, 1, 1));
+
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setOrderedProductPriceCents(1_000);
+
+        analyticsService.recordOrder(new OrderPlacedEvent(order, List.of(item)));
+    }
+}